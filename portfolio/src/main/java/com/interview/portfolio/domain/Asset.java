@@ -10,6 +10,11 @@ import java.util.Objects;
 public abstract sealed class Asset permits Stock, Bond {
     private final String symbol;
     private final BigDecimal price;
+    // Fixed-point copy of price, or NO_FIXED_POINT if it has more than
+    // FixedPoint.SCALE decimals / does not fit in a long.
+    private final long priceUnits;
+
+    private static final long NO_FIXED_POINT = Long.MIN_VALUE;
 
     protected Asset(String symbol, BigDecimal price) {
         this.symbol = Objects.requireNonNull(symbol, "Symbol cannot be null");
@@ -17,6 +22,15 @@ public abstract sealed class Asset permits Stock, Bond {
         if (price.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
+        this.priceUnits = toUnitsOrNone(price);
+    }
+
+    private static long toUnitsOrNone(BigDecimal price) {
+        try {
+            return FixedPoint.toUnits(price);
+        } catch (ArithmeticException e) {
+            return NO_FIXED_POINT;
+        }
     }
 
     public String getSymbol() {
@@ -27,6 +41,26 @@ public abstract sealed class Asset permits Stock, Bond {
         return price;
     }
 
+    /**
+     * @return true if the price is exactly representable in fixed-point units
+     */
+    public boolean hasFixedPointPrice() {
+        return priceUnits != NO_FIXED_POINT;
+    }
+
+    /**
+     * Price as a scaled long (see {@link FixedPoint}). Used by the primitive
+     * fast paths for bulk valuation.
+     *
+     * @throws ArithmeticException if the price has no fixed-point representation
+     */
+    public long getPriceUnits() {
+        if (priceUnits == NO_FIXED_POINT) {
+            throw new ArithmeticException("Price of " + symbol + " is not representable at scale " + FixedPoint.SCALE);
+        }
+        return priceUnits;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
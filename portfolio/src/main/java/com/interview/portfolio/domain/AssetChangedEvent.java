@@ -0,0 +1,10 @@
+package com.interview.portfolio.domain;
+
+import com.interview.event.Event;
+
+/**
+ * Fired by an ObservableAssetRepository after an asset was stored.
+ * previous is the asset the id mapped to before, or null for an insert.
+ */
+public record AssetChangedEvent(String id, Asset previous, Asset current) implements Event {
+}
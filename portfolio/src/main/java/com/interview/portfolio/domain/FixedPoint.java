@@ -0,0 +1,70 @@
+package com.interview.portfolio.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Scaled-long (fixed-point) arithmetic for prices.
+ * A value is stored as a long count of 1/10^SCALE units, e.g. 150.25 -> 1_502_500.
+ * Primitive longs avoid the allocation of BigDecimal on bulk valuation paths.
+ *
+ * All helpers are overflow-checked (Math.*Exact) and throw ArithmeticException
+ * rather than silently wrapping around.
+ */
+public final class FixedPoint {
+
+    /** Number of decimal places carried by a fixed-point value. */
+    public static final int SCALE = 4;
+
+    /** The value 1.0 in fixed-point units. */
+    public static final long ONE = 10_000L;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Converts an exact decimal to units.
+     *
+     * @throws ArithmeticException if the value has more than SCALE decimals or
+     *                             does not fit in a long
+     */
+    public static long toUnits(BigDecimal value) {
+        return value.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * Same result as toBigDecimal(units).doubleValue(): the division is
+     * correctly rounded, like BigDecimal's conversion.
+     */
+    public static double toDouble(long units) {
+        return units / (double) ONE;
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Multiplies a fixed-point value by a plain integer (e.g. price * quantity).
+     */
+    public static long multiply(long units, long quantity) {
+        return Math.multiplyExact(units, quantity);
+    }
+
+    /**
+     * Multiplies two fixed-point values (e.g. price * tax rate), rounding
+     * HALF_UP back to SCALE decimals.
+     */
+    public static long multiplyRate(long units, long rateUnits) {
+        long product = Math.multiplyExact(units, rateUnits);
+        long quotient = product / ONE;
+        long remainder = product % ONE;
+        if (Math.abs(remainder) * 2 >= ONE) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,10 @@
+package com.interview.portfolio.domain;
+
+import com.interview.event.Event;
+
+/**
+ * Fired by a Portfolio after a holding changed.
+ * quantityDelta is positive for addAsset and negative for removeAsset.
+ */
+public record HoldingChangedEvent(Portfolio portfolio, String symbol, int quantityDelta) implements Event {
+}
@@ -0,0 +1,374 @@
+package com.interview.portfolio.domain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable, versioned view of a portfolio's holdings (symbol -> quantity).
+ *
+ * Stored as a persistent hash array mapped trie (HAMT): 32-way nodes indexed
+ * by 5 bits of the symbol's hash, with a bitmap so absent children take no
+ * space. An update copies only the nodes on the path to the changed key
+ * (O(log32 n), i.e. at most 7 small arrays) and shares everything else with
+ * the previous version. That makes publishing a new snapshot cheap for
+ * writers, and reading one is a single reference read for readers: no locks,
+ * and no torn state.
+ */
+public final class HoldingsSnapshot extends AbstractMap<String, Integer> {
+
+    private static final HoldingsSnapshot EMPTY = new HoldingsSnapshot(BitmapNode.EMPTY, 0, 0);
+
+    private final Node root;
+    private final int size;
+    private final long version;
+
+    private HoldingsSnapshot(Node root, int size, long version) {
+        this.root = root;
+        this.size = size;
+        this.version = version;
+    }
+
+    public static HoldingsSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Incremented on every published change; equal versions of the same
+     * portfolio mean equal holdings.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return the quantity held, 0 if none
+     */
+    public int quantity(String symbol) {
+        Integer quantity = root.find(0, hash(symbol), symbol);
+        return quantity == null ? 0 : quantity;
+    }
+
+    /**
+     * Returns a new snapshot with the given absolute quantities applied
+     * (0 removes the symbol) and the version incremented once for the batch.
+     */
+    HoldingsSnapshot withQuantities(Map<String, Integer> quantities) {
+        Node newRoot = root;
+        int newSize = size;
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            String symbol = entry.getKey();
+            int[] sizeDelta = new int[1];
+            if (entry.getValue() == 0) {
+                newRoot = newRoot.remove(0, hash(symbol), symbol, sizeDelta);
+                if (newRoot == null) {
+                    // The last holding went; later entries of the batch still need a root
+                    newRoot = BitmapNode.EMPTY;
+                }
+            } else {
+                newRoot = newRoot.put(0, hash(symbol), symbol, entry.getValue(), sizeDelta);
+            }
+            newSize += sizeDelta[0];
+        }
+        return new HoldingsSnapshot(newRoot, newSize, version + 1);
+    }
+
+    @Override
+    public Integer get(Object key) {
+        return key instanceof String symbol ? root.find(0, hash(symbol), symbol) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Integer>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Integer>> iterator() {
+                return new TrieIterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int hash(String symbol) {
+        int h = symbol.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private abstract static class Node {
+        abstract Integer find(int shift, int hash, String key);
+
+        /**
+         * @param sizeDelta set to 1 if the key was added
+         * @return this if nothing changed, otherwise the path-copied node
+         */
+        abstract Node put(int shift, int hash, String key, Integer value, int[] sizeDelta);
+
+        /**
+         * @param sizeDelta set to -1 if the key was removed
+         * @return this if nothing changed, null if the node became empty
+         */
+        abstract Node remove(int shift, int hash, String key, int[] sizeDelta);
+
+        /**
+         * Layout shared by both node types: pairs of [key, value] or [null, child].
+         */
+        abstract Object[] array();
+    }
+
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap; // which of the 32 children are present
+        final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        Object[] array() {
+            return array;
+        }
+
+        @Override
+        Integer find(int shift, int hash, String key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int i = 2 * index(bit);
+            if (array[i] == null) {
+                return ((Node) array[i + 1]).find(shift + 5, hash, key);
+            }
+            return key.equals(array[i]) ? (Integer) array[i + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, String key, Integer value, int[] sizeDelta) {
+            int bit = bit(hash, shift);
+            int i = 2 * index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[array.length + 2];
+                System.arraycopy(array, 0, copy, 0, i);
+                copy[i] = key;
+                copy[i + 1] = value;
+                System.arraycopy(array, i, copy, i + 2, array.length - i);
+                sizeDelta[0] = 1;
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object existingKey = array[i];
+            Object existingValue = array[i + 1];
+            if (existingKey == null) {
+                Node child = ((Node) existingValue).put(shift + 5, hash, key, value, sizeDelta);
+                return child == existingValue ? this : with(i, null, child);
+            }
+            if (key.equals(existingKey)) {
+                return value.equals(existingValue) ? this : with(i, key, value);
+            }
+            // Two keys share this position: push both one level down
+            sizeDelta[0] = 1;
+            String other = (String) existingKey;
+            return with(i, null, merge(shift + 5, hash(other), other, (Integer) existingValue, hash, key, value));
+        }
+
+        @Override
+        Node remove(int shift, int hash, String key, int[] sizeDelta) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = 2 * index(bit);
+            if (array[i] == null) {
+                Node child = ((Node) array[i + 1]).remove(shift + 5, hash, key, sizeDelta);
+                if (child == array[i + 1]) {
+                    return this;
+                }
+                return child == null ? without(bit, i) : with(i, null, child);
+            }
+            if (!key.equals(array[i])) {
+                return this;
+            }
+            sizeDelta[0] = -1;
+            return without(bit, i);
+        }
+
+        private BitmapNode with(int i, Object key, Object value) {
+            Object[] copy = array.clone();
+            copy[i] = key;
+            copy[i + 1] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private BitmapNode without(int bit, int i) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, i);
+            System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & 31);
+        }
+    }
+
+    /**
+     * Keys whose 32-bit hashes are identical: all hash bits are used up, so
+     * they are kept in a small linear list.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        Object[] array() {
+            return array;
+        }
+
+        @Override
+        Integer find(int shift, int hash, String key) {
+            int i = indexOf(key);
+            return i < 0 ? null : (Integer) array[i + 1];
+        }
+
+        @Override
+        Node put(int shift, int hash, String key, Integer value, int[] sizeDelta) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (value.equals(array[i + 1])) {
+                    return this;
+                }
+                Object[] copy = array.clone();
+                copy[i + 1] = value;
+                return new CollisionNode(this.hash, copy);
+            }
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, array.length);
+            copy[array.length] = key;
+            copy[array.length + 1] = value;
+            sizeDelta[0] = 1;
+            return new CollisionNode(this.hash, copy);
+        }
+
+        @Override
+        Node remove(int shift, int hash, String key, int[] sizeDelta) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            sizeDelta[0] = -1;
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, i);
+            System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+            return new CollisionNode(this.hash, copy);
+        }
+
+        private int indexOf(String key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static Node merge(int shift, int hash1, String key1, Integer value1,
+            int hash2, String key2, Integer value2) {
+        if (shift >= 32) {
+            return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+        }
+        int bit1 = 1 << ((hash1 >>> shift) & 31);
+        int bit2 = 1 << ((hash2 >>> shift) & 31);
+        if (bit1 == bit2) {
+            return new BitmapNode(bit1, new Object[] {null, merge(shift + 5, hash1, key1, value1, hash2, key2, value2)});
+        }
+        Object[] array = Integer.compareUnsigned(bit1, bit2) < 0
+                ? new Object[] {key1, value1, key2, value2}
+                : new Object[] {key2, value2, key1, value1};
+        return new BitmapNode(bit1 | bit2, array);
+    }
+
+    /**
+     * Depth-first walk with an explicit stack of (node, position) frames.
+     */
+    private static final class TrieIterator implements Iterator<Entry<String, Integer>> {
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Entry<String, Integer> next;
+
+        TrieIterator(Node root) {
+            arrays.push(root.array());
+            positions.push(0);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, Integer> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Integer> current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !arrays.isEmpty()) {
+                Object[] array = arrays.peek();
+                int i = positions.pop();
+                if (i >= array.length) {
+                    arrays.pop();
+                    continue;
+                }
+                positions.push(i + 2);
+                if (array[i] == null) {
+                    arrays.push(((Node) array[i + 1]).array());
+                    positions.push(0);
+                } else {
+                    next = new SimpleImmutableEntry<>((String) array[i], (Integer) array[i + 1]);
+                }
+            }
+        }
+    }
+}
@@ -1,37 +1,84 @@
 package com.interview.portfolio.domain;
 
-import java.util.Collections;
+import com.interview.event.EventDispatcher;
+import com.interview.event.EventListener;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents a user's portfolio.
- * Uses ConcurrentHashMap to ensure thread safety for concurrent access/updates.
+ * Holdings are an immutable HoldingsSnapshot behind an AtomicReference
+ * (copy-on-write): writers build a new snapshot and publish it with
+ * compareAndSet, retrying if another writer got there first. Readers always
+ * see one complete version - never half of a multi-asset change.
  */
 public class Portfolio {
-    private final Map<String, Integer> holdings = new ConcurrentHashMap<>();
+    private final AtomicReference<HoldingsSnapshot> holdings = new AtomicReference<>(HoldingsSnapshot.empty());
+    // Observer ("Megaphone"): notifies listeners after every successful change
+    private final EventDispatcher<HoldingChangedEvent> holdingChanges = new EventDispatcher<>();
 
     public void addAsset(Asset asset, int quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be positive");
         }
-        holdings.merge(asset.getSymbol(), quantity, Integer::sum);
+        rebalance(Map.of(asset.getSymbol(), quantity));
     }
 
     public void removeAsset(Asset asset, int quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be positive");
         }
-        holdings.compute(asset.getSymbol(), (symbol, currentQty) -> {
-            if (currentQty == null || currentQty < quantity) {
-                throw new IllegalStateException("Insufficient healthy quantity to sell");
+        rebalance(Map.of(asset.getSymbol(), -quantity));
+    }
+
+    /**
+     * Applies several quantity changes (symbol -> signed delta) atomically:
+     * either all of them become visible in one new snapshot, or - if any
+     * symbol would go negative - none do.
+     */
+    public void rebalance(Map<String, Integer> quantityDeltas) {
+        quantityDeltas.forEach((symbol, delta) -> {
+            if (delta == 0) {
+                throw new IllegalArgumentException("Quantity delta must not be zero: " + symbol);
             }
-            int newQty = currentQty - quantity;
-            return newQty == 0 ? null : newQty;
         });
+        while (true) {
+            HoldingsSnapshot current = holdings.get();
+            Map<String, Integer> quantities = new HashMap<>();
+            quantityDeltas.forEach((symbol, delta) -> {
+                int newQty = Math.addExact(current.quantity(symbol), delta);
+                if (newQty < 0) {
+                    throw new IllegalStateException("Insufficient healthy quantity to sell");
+                }
+                quantities.put(symbol, newQty);
+            });
+            if (holdings.compareAndSet(current, current.withQuantities(quantities))) {
+                break;
+            }
+        }
+        quantityDeltas.forEach((symbol, delta) -> holdingChanges.dispatch(new HoldingChangedEvent(this, symbol, delta)));
+    }
+
+    public void addHoldingListener(EventListener<HoldingChangedEvent> listener) {
+        holdingChanges.addListener(listener);
+    }
+
+    public void removeHoldingListener(EventListener<HoldingChangedEvent> listener) {
+        holdingChanges.removeListener(listener);
+    }
+
+    /**
+     * O(1) and lock-free: the current snapshot, which never changes afterwards.
+     */
+    public HoldingsSnapshot snapshot() {
+        return holdings.get();
     }
 
+    /**
+     * Unmodifiable and consistent: the same as snapshot(), typed as a Map.
+     */
     public Map<String, Integer> getHoldings() {
-        return Collections.unmodifiableMap(holdings);
+        return holdings.get();
     }
 }
@@ -0,0 +1,10 @@
+package com.interview.portfolio.domain;
+
+import com.interview.event.Event;
+import java.math.BigDecimal;
+
+/**
+ * Published (e.g. on an EventBus) when the market price of a symbol changes.
+ */
+public record PriceUpdatedEvent(String symbol, BigDecimal price) implements Event {
+}
@@ -0,0 +1,247 @@
+package com.interview.portfolio.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory-lean alternative to Portfolio's Map<String, Integer> holdings.
+ *
+ * Each position is one long in an open-addressing table (linear probing):
+ * the upper 32 bits hold symbolId + 1 (0 = empty slot), the lower 32 bits the
+ * quantity. Updates are a CAS on that single long, so no Integer is boxed and
+ * no node is allocated per position.
+ *
+ * Footprint per position (64-bit JVM, compressed oops):
+ * - ConcurrentHashMap<String, Integer>: Node (32 bytes) + Integer (16 bytes,
+ * except cached -128..127) + table slot (4 bytes / load factor) ~ 53 bytes.
+ * - PrimitiveHoldings: 8 bytes / load factor, i.e. 10.7 to 21 bytes between
+ * resizes.
+ *
+ * A position that drops to zero keeps its slot (quantity 0) so probe chains
+ * never break; such slots are dropped on the next resize. Updates share a
+ * read lock and CAS; only a resize takes the write lock.
+ */
+public class PrimitiveHoldings {
+
+    /**
+     * Allocation-free iteration callback.
+     */
+    @FunctionalInterface
+    public interface PositionConsumer {
+        void accept(int symbolId, int quantity);
+    }
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final long EMPTY = 0L;
+
+    // casUpdate results
+    private static final int UPDATED = 0;
+    private static final int INSERTED = 1;
+    private static final int FULL = 2;
+
+    private final ReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private final AtomicInteger usedSlots = new AtomicInteger();
+    private volatile AtomicLongArray table;
+
+    public PrimitiveHoldings() {
+        this(16);
+    }
+
+    public PrimitiveHoldings(int expectedPositions) {
+        this.table = new AtomicLongArray(tableSizeFor(expectedPositions));
+    }
+
+    /**
+     * @throws IllegalArgumentException if quantity is not positive
+     * @throws ArithmeticException      if the position would exceed Integer.MAX_VALUE
+     */
+    public void add(int symbolId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        update(symbolId, quantity);
+    }
+
+    /**
+     * @throws IllegalArgumentException if quantity is not positive
+     * @throws IllegalStateException    if less than quantity is held
+     */
+    public void remove(int symbolId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        update(symbolId, -quantity);
+    }
+
+    /**
+     * @return the quantity held, 0 if none
+     */
+    public int get(int symbolId) {
+        AtomicLongArray current = table;
+        int mask = current.length() - 1;
+        for (int slot = hash(symbolId) & mask; ; slot = (slot + 1) & mask) {
+            long entry = current.get(slot);
+            if (entry == EMPTY) {
+                return 0;
+            }
+            if (idOf(entry) == symbolId) {
+                return quantityOf(entry);
+            }
+        }
+    }
+
+    /**
+     * Visits every position with a non-zero quantity, without allocating.
+     * Weakly consistent with concurrent updates.
+     */
+    public void forEach(PositionConsumer consumer) {
+        AtomicLongArray current = table;
+        for (int slot = 0; slot < current.length(); slot++) {
+            long entry = current.get(slot);
+            if (entry != EMPTY && quantityOf(entry) != 0) {
+                consumer.accept(idOf(entry), quantityOf(entry));
+            }
+        }
+    }
+
+    /**
+     * Number of positions with a non-zero quantity.
+     */
+    public int size() {
+        int[] count = new int[1];
+        forEach((symbolId, quantity) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Boxed copy in the shape of Portfolio.getHoldings(), for callers that need a Map.
+     */
+    public Map<String, Integer> toMap(SymbolTable symbols) {
+        Map<String, Integer> map = new HashMap<>();
+        forEach((symbolId, quantity) -> map.put(symbols.symbolOf(symbolId), quantity));
+        return map;
+    }
+
+    private void update(int symbolId, int delta) {
+        while (true) {
+            int result;
+            resizeLock.readLock().lock();
+            try {
+                result = casUpdate(table, symbolId, delta);
+            } finally {
+                resizeLock.readLock().unlock();
+            }
+            if (result == UPDATED) {
+                return;
+            }
+            if (result == INSERTED && usedSlots.get() <= table.length() * MAX_LOAD_FACTOR) {
+                return;
+            }
+            resize();
+            if (result == INSERTED) {
+                return;
+            }
+            // FULL: retry against the resized table
+        }
+    }
+
+    private int casUpdate(AtomicLongArray current, int symbolId, int delta) {
+        int mask = current.length() - 1;
+        int slot = hash(symbolId) & mask;
+        while (true) {
+            long entry = current.get(slot);
+            if (entry == EMPTY) {
+                if (delta < 0) {
+                    throw new IllegalStateException("Insufficient healthy quantity to sell");
+                }
+                // Reserve before claiming: the last empty slot is never taken, so probes always terminate
+                if (usedSlots.incrementAndGet() >= current.length()) {
+                    usedSlots.decrementAndGet();
+                    return FULL;
+                }
+                if (current.compareAndSet(slot, EMPTY, pack(symbolId, delta))) {
+                    return INSERTED;
+                }
+                usedSlots.decrementAndGet();
+                continue; // lost the race for this slot; re-read it
+            }
+            if (idOf(entry) != symbolId) {
+                slot = (slot + 1) & mask;
+                continue;
+            }
+            int quantity = quantityOf(entry);
+            if (quantity + (long) delta < 0) {
+                throw new IllegalStateException("Insufficient healthy quantity to sell");
+            }
+            if (current.compareAndSet(slot, entry, pack(symbolId, Math.addExact(quantity, delta)))) {
+                return UPDATED;
+            }
+        }
+    }
+
+    private void resize() {
+        resizeLock.writeLock().lock();
+        try {
+            AtomicLongArray old = table;
+            if (usedSlots.get() <= old.length() * MAX_LOAD_FACTOR) {
+                return; // another thread already resized
+            }
+            // Slots of positions that dropped to zero are not carried over
+            int live = 0;
+            for (int slot = 0; slot < old.length(); slot++) {
+                if (old.get(slot) != EMPTY && quantityOf(old.get(slot)) != 0) {
+                    live++;
+                }
+            }
+            AtomicLongArray resized = new AtomicLongArray(tableSizeFor(live));
+            int mask = resized.length() - 1;
+            for (int slot = 0; slot < old.length(); slot++) {
+                long entry = old.get(slot);
+                if (entry != EMPTY && quantityOf(entry) != 0) {
+                    int target = hash(idOf(entry)) & mask;
+                    while (resized.get(target) != EMPTY) {
+                        target = (target + 1) & mask;
+                    }
+                    resized.set(target, entry);
+                }
+            }
+            usedSlots.set(live);
+            table = resized;
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Smallest power of two that keeps the given number of entries at or below
+     * half the maximum load factor, leaving room to grow before the next resize.
+     */
+    private static int tableSizeFor(int entries) {
+        int size = 16;
+        while (size * MAX_LOAD_FACTOR / 2 < entries) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static int hash(int symbolId) {
+        // Ids are dense (0, 1, 2, ...); spread them so neighbours don't cluster
+        return symbolId * 0x9E3779B9;
+    }
+
+    private static long pack(int symbolId, int quantity) {
+        return ((long) (symbolId + 1) << 32) | (quantity & 0xFFFFFFFFL);
+    }
+
+    private static int idOf(long entry) {
+        return (int) (entry >>> 32) - 1;
+    }
+
+    private static int quantityOf(long entry) {
+        return (int) entry;
+    }
+}
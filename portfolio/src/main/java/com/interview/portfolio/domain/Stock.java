@@ -7,23 +7,37 @@ import java.util.Objects;
  * Clean immutable data carrier for Stock information.
  * Extends Asset to demonstrate inheritance and is used with restricted
  * Generics.
+ *
+ * The sector is stored as an id in SymbolTable.sectors(): millions of stocks
+ * share a handful of sectors, so each keeps 4 bytes instead of a reference to
+ * its own copy of the string, and grouping can index arrays by id.
  */
 public non-sealed class Stock extends Asset {
     private final String name;
-    private final String sector;
+    private final int sectorId;
 
     public Stock(String symbol, String name, String sector, BigDecimal price) {
         super(symbol, price);
         this.name = Objects.requireNonNull(name, "Name cannot be null");
-        this.sector = Objects.requireNonNull(sector, "Sector cannot be null");
+        this.sectorId = SymbolTable.sectors().intern(Objects.requireNonNull(sector, "Sector cannot be null"));
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * @return the canonical sector string, shared by every stock in the sector
+     */
     public String getSector() {
-        return sector;
+        return SymbolTable.sectors().symbolOf(sectorId);
+    }
+
+    /**
+     * Id of the sector in SymbolTable.sectors().
+     */
+    public int getSectorId() {
+        return sectorId;
     }
 
     @Override
@@ -31,7 +45,7 @@ public non-sealed class Stock extends Asset {
         return "Stock{" +
                 "symbol='" + getSymbol() + '\'' +
                 ", name='" + name + '\'' +
-                ", sector='" + sector + '\'' +
+                ", sector='" + getSector() + '\'' +
                 ", price=" + getPrice() +
                 '}';
     }
@@ -45,11 +59,12 @@ public non-sealed class Stock extends Asset {
         if (!super.equals(o))
             return false;
         Stock stock = (Stock) o;
-        return Objects.equals(name, stock.name) && Objects.equals(sector, stock.sector);
+        return Objects.equals(name, stock.name) && sectorId == stock.sectorId;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), name, sector);
+        // The string, not the id: ids depend on interning order
+        return Objects.hash(super.hashCode(), name, getSector());
     }
 }
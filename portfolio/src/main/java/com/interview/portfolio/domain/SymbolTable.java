@@ -0,0 +1,76 @@
+package com.interview.portfolio.domain;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns symbols to dense int ids (0, 1, 2, ...), so holdings can store an
+ * int instead of a String reference and compare ids instead of strings.
+ * sectors() is a second process-wide table for sector names: there are only a
+ * few dozen, shared by millions of stocks, so ids also make a natural index
+ * for per-sector arrays.
+ *
+ * Lookups of known symbols are a ConcurrentHashMap read. Assigning a new id is
+ * synchronized, which is fine because the set of symbols is small and stable
+ * compared with the number of positions that refer to them.
+ */
+public final class SymbolTable {
+
+    private static final SymbolTable GLOBAL = new SymbolTable();
+    private static final SymbolTable SECTORS = new SymbolTable();
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[64];
+
+    /**
+     * Process-wide table, so ids are comparable across portfolios.
+     */
+    public static SymbolTable global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Process-wide table of sector names, used by Stock.
+     */
+    public static SymbolTable sectors() {
+        return SECTORS;
+    }
+
+    public int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : assign(symbol);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id was never assigned
+     */
+    public String symbolOf(int id) {
+        String[] current = symbols;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new IllegalArgumentException("Unknown symbol id: " + id);
+        }
+        return current[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized int assign(String symbol) {
+        Integer existing = ids.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        int id = ids.size();
+        String[] current = symbols;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, id * 2);
+        }
+        current[id] = symbol;
+        // Publish the array before the id, so symbolOf never sees an id it can't resolve
+        symbols = current;
+        ids.put(symbol, id);
+        return id;
+    }
+}
@@ -0,0 +1,133 @@
+package com.interview.portfolio.proxy;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous log writer for proxied calls.
+ *
+ * The calling thread only claims a slot in a preallocated ring buffer (one
+ * CAS) and stores two primitives in it: no String is built and no I/O happens
+ * on the hot path. A single daemon thread drains the ring, formats the lines
+ * and prints them. When the ring is full, events are dropped and counted
+ * rather than blocking the caller.
+ */
+public class AsyncLogSink implements AutoCloseable {
+
+    private final PrintStream out;
+    private final int mask;
+    private final int[] methodIds;
+    private final long[] durations;
+    // published[i] == sequence + 1 once slot i holds that sequence's event
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    // Advanced after the line is printed (consumed is advanced before, to free the slot early)
+    private volatile long printed;
+    private final LongAdder dropped = new LongAdder();
+    private final List<String> methodNames = new ArrayList<>();
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public AsyncLogSink(PrintStream out) {
+        this(out, 8_192);
+    }
+
+    /**
+     * @param capacity ring size, rounded up to a power of two
+     */
+    public AsyncLogSink(PrintStream out, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.out = out;
+        this.mask = size - 1;
+        this.methodIds = new int[size];
+        this.durations = new long[size];
+        this.published = new AtomicLongArray(size);
+        this.drainer = new Thread(this::drainLoop, "proxy-log-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Registers a method name once (at proxy creation), so events carry an int.
+     */
+    synchronized int register(String methodName) {
+        methodNames.add(methodName);
+        return methodNames.size() - 1;
+    }
+
+    /**
+     * @return false if the ring was full and the event was dropped
+     */
+    boolean offer(int methodId, long nanos) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed > mask) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int slot = (int) sequence & mask;
+        methodIds[slot] = methodId;
+        durations[slot] = nanos;
+        published.set(slot, sequence + 1); // volatile write publishes the two plain writes above
+        return true;
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until every event offered so far has been printed.
+     */
+    public void flush() {
+        long target = claimed.get();
+        while (printed < target && drainer.isAlive()) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        out.flush();
+    }
+
+    /**
+     * Flushes, then stops the drainer and waits for it to exit.
+     */
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            long sequence = consumed;
+            int slot = (int) sequence & mask;
+            if (published.get(slot) != sequence + 1) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                continue;
+            }
+            int methodId = methodIds[slot];
+            long nanos = durations[slot];
+            consumed = sequence + 1; // frees the slot for producers
+            out.println("[PROXY] " + methodName(methodId) + " | Time: " + (nanos / 1000) + " micros");
+            printed = sequence + 1;
+        }
+    }
+
+    private synchronized String methodName(int methodId) {
+        return methodNames.get(methodId);
+    }
+}
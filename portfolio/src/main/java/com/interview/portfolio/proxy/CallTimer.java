@@ -0,0 +1,13 @@
+package com.interview.portfolio.proxy;
+
+/**
+ * Hook called by generated interceptors after each @Logged call.
+ * Package-private: generated classes live in this package.
+ */
+interface CallTimer {
+
+    /**
+     * @param methodId index of the method among the proxy's @Logged methods
+     */
+    void record(int methodId, long nanos);
+}
@@ -0,0 +1,129 @@
+package com.interview.portfolio.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Production-style variant of LoggingHandler. LoggingHandler does, on every
+ * call: an annotation lookup, a reflective Method.invoke (argument checks,
+ * InvocationTargetException wrapping) and, for @Logged methods, string
+ * concatenation plus System.out inside the timed section. Here:
+ *
+ * - Each Method is resolved once into a Dispatch: a MethodHandle bound to the
+ * target (called with invokeExact, which the JIT can inline) and the
+ * logged/not-logged decision.
+ * - @Logged calls record their duration into a per-method LatencyHistogram.
+ * - Optional per-call log lines go through an AsyncLogSink: the caller only
+ * hands two primitives to a ring buffer; formatting and I/O happen on
+ * another thread.
+ */
+public class FastLoggingHandler implements InvocationHandler {
+
+    /**
+     * Everything invoke() needs for one method, resolved once.
+     */
+    private record Dispatch(MethodHandle handle, boolean logged, LatencyHistogram histogram, int logId) {
+    }
+
+    private final Object target;
+    private final AsyncLogSink sink;
+    private final Map<Method, Dispatch> dispatches = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @param sink where per-call lines go, or null to record histograms only
+     */
+    public FastLoggingHandler(Object target, Class<?> interfaceType, AsyncLogSink sink) {
+        this.target = target;
+        this.sink = sink;
+        // Pre-resolve the whole interface up front; anything else (e.g. Object methods) resolves lazily
+        for (Method method : interfaceType.getMethods()) {
+            dispatches.put(method, resolve(method));
+        }
+    }
+
+    public static <T> T createProxy(Object target, Class<T> interfaceType) {
+        return createProxy(target, interfaceType, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T createProxy(Object target, Class<T> interfaceType, AsyncLogSink sink) {
+        return (T) Proxy.newProxyInstance(
+                interfaceType.getClassLoader(),
+                new Class<?>[] { interfaceType },
+                new FastLoggingHandler(target, interfaceType, sink));
+    }
+
+    /**
+     * The handler behind a proxy made by createProxy, to read its metrics.
+     */
+    public static FastLoggingHandler handlerOf(Object proxy) {
+        return (FastLoggingHandler) Proxy.getInvocationHandler(proxy);
+    }
+
+    /**
+     * Histograms of the @Logged methods, by metric name (overloads share one).
+     */
+    public Map<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Dispatch dispatch = dispatches.get(method);
+        if (dispatch == null) {
+            dispatch = dispatches.computeIfAbsent(method, this::resolve);
+        }
+        if (!dispatch.logged()) {
+            return (Object) dispatch.handle().invokeExact(args);
+        }
+        long start = System.nanoTime();
+        try {
+            // invokeExact throws the target's exception itself - nothing to unwrap
+            return (Object) dispatch.handle().invokeExact(args);
+        } finally {
+            long duration = System.nanoTime() - start;
+            dispatch.histogram().record(duration);
+            if (sink != null) {
+                sink.offer(dispatch.logId(), duration);
+            }
+        }
+    }
+
+    private Dispatch resolve(Method method) {
+        MethodHandle handle = unreflect(method)
+                .bindTo(target)
+                // (Object[]) -> Object, whatever the real signature: one shape for invokeExact
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        boolean logged = method.isAnnotationPresent(Logged.class);
+        if (!logged) {
+            return new Dispatch(handle, false, null, -1);
+        }
+        String metric = LoggingHandler.metricName(method);
+        LatencyHistogram histogram = histograms.computeIfAbsent(metric, name -> new LatencyHistogram());
+        int logId = sink == null ? -1 : sink.register(metric);
+        return new Dispatch(handle, true, histogram, logId);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // Non-public interface: fall back to a suppressed access check
+            try {
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException | RuntimeException inaccessible) {
+                throw new IllegalArgumentException("Cannot access " + method, inaccessible);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.interview.portfolio.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alternative to the java.lang.reflect.Proxy handlers with the same
+ * createProxy API. Instead of routing every call through
+ * InvocationHandler.invoke (Object[] arguments, boxing, a Method lookup), it
+ * generates one hidden class per interface, the first time that interface is
+ * proxied:
+ *
+ * - Plain methods are a direct invokeinterface on the target.
+ * - @Logged methods add System.nanoTime() around that call and hand the
+ * duration to the proxy's MethodTimings.
+ *
+ * The result is ordinary bytecode the JIT can inline through, so a
+ * non-@Logged call costs about what a direct call does. Hidden classes are
+ * not discoverable by name and are unloaded with the interface's entry in the
+ * cache. Object methods (toString, equals, hashCode) are not forwarded.
+ */
+public final class GeneratedProxyFactory {
+
+    /**
+     * The generated class for one interface, and the names of its @Logged
+     * methods in timer-id order.
+     */
+    private record Interceptor(MethodHandle constructor, List<String> loggedMethods) {
+    }
+
+    private static final ClassValue<Interceptor> INTERCEPTORS = new ClassValue<>() {
+        @Override
+        protected Interceptor computeValue(Class<?> interfaceType) {
+            return generate(interfaceType);
+        }
+    };
+
+    private GeneratedProxyFactory() {
+    }
+
+    public static <T> T createProxy(Object target, Class<T> interfaceType) {
+        return createProxy(target, interfaceType, new MethodTimings());
+    }
+
+    /**
+     * @param timings receives the duration of every @Logged call
+     */
+    public static <T> T createProxy(Object target, Class<T> interfaceType, MethodTimings timings) {
+        if (!interfaceType.isInstance(target)) {
+            throw new IllegalArgumentException(target.getClass().getName() + " does not implement " + interfaceType.getName());
+        }
+        Interceptor interceptor = INTERCEPTORS.get(interfaceType);
+        // Resolve the histograms once per proxy, so recording is an array index
+        LatencyHistogram[] histograms = interceptor.loggedMethods().stream()
+                .map(timings::histogram)
+                .toArray(LatencyHistogram[]::new);
+        CallTimer timer = (methodId, nanos) -> histograms[methodId].record(nanos);
+        try {
+            return interfaceType.cast(interceptor.constructor().invoke(target, timer));
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot instantiate interceptor for " + interfaceType.getName(), e);
+        }
+    }
+
+    private static Interceptor generate(Class<?> interfaceType) {
+        if (!interfaceType.isInterface() || !Modifier.isPublic(interfaceType.getModifiers())) {
+            throw new IllegalArgumentException("Only public interfaces can be proxied: " + interfaceType.getName());
+        }
+        List<Method> methods = methodsToImplement(interfaceType);
+        int[] timerIds = new int[methods.size()];
+        List<String> loggedMethods = new ArrayList<>();
+        for (int i = 0; i < methods.size(); i++) {
+            if (methods.get(i).isAnnotationPresent(Logged.class)) {
+                timerIds[i] = loggedMethods.size();
+                loggedMethods.add(LoggingHandler.metricName(methods.get(i)));
+            } else {
+                timerIds[i] = -1;
+            }
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        String className = GeneratedProxyFactory.class.getPackageName().replace('.', '/') + "/GeneratedProxy";
+        byte[] classFile = InterceptorClassWriter.write(className, interfaceType, methods, timerIds);
+        try {
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(classFile, true);
+            MethodHandle constructor = hidden.findConstructor(hidden.lookupClass(),
+                    MethodType.methodType(void.class, interfaceType, CallTimer.class));
+            return new Interceptor(constructor, List.copyOf(loggedMethods));
+        } catch (IllegalAccessException | NoSuchMethodException | LinkageError e) {
+            // e.g. an interface (or a type in its signatures) not visible from this class loader
+            throw new IllegalArgumentException("Cannot generate interceptor for " + interfaceType.getName(), e);
+        }
+    }
+
+    /**
+     * Every non-static method of the interface and its superinterfaces, once
+     * per signature. Default methods are included, so the target's override
+     * (if any) is the one called.
+     */
+    private static List<Method> methodsToImplement(Class<?> interfaceType) {
+        Map<String, Method> bySignature = new LinkedHashMap<>();
+        for (Method method : interfaceType.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            // The same signature inherited twice: keep the @Logged one
+            bySignature.merge(method.getName() + InterceptorClassWriter.descriptor(method), method,
+                    (first, second) -> first.isAnnotationPresent(Logged.class) ? first : second);
+        }
+        List<Method> methods = new ArrayList<>(bySignature.values());
+        methods.sort(Comparator.comparing(Method::getName).thenComparing(InterceptorClassWriter::descriptor));
+        return methods;
+    }
+}
@@ -0,0 +1,451 @@
+package com.interview.portfolio.proxy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the class file of an interceptor for one interface - the job a
+ * library like ASM or ByteBuddy normally does, reduced to what is needed here:
+ *
+ * <pre>
+ * final class GeneratedProxy implements Iface {
+ *     private final Iface target;
+ *     private final CallTimer timer;
+ *
+ *     public R plain(A a) { return target.plain(a); }
+ *
+ *     public R logged(A a) {           // only for @Logged methods
+ *         long start = System.nanoTime();
+ *         try {
+ *             return target.logged(a);
+ *         } finally {
+ *             timer.record(ID, System.nanoTime() - start);
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * Arguments are passed straight through in their own types: no Object[], no
+ * boxing, no reflection. The only branch in any method is the exception
+ * handler of a logged method, so a single StackMapTable frame suffices.
+ */
+final class InterceptorClassWriter {
+
+    private static final int JAVA_17 = 61;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final String TIMER = "com/interview/portfolio/proxy/CallTimer";
+    private static final String TIMER_DESC = "L" + TIMER + ";";
+
+    private final ConstantPool pool = new ConstantPool();
+    private final String className;
+    private final String interfaceName;
+    private final String interfaceDesc;
+
+    private InterceptorClassWriter(String className, Class<?> interfaceType) {
+        this.className = className;
+        this.interfaceName = internalName(interfaceType);
+        this.interfaceDesc = "L" + interfaceName + ";";
+    }
+
+    /**
+     * @param className     internal name of the class to generate, in the
+     *                      package of the Lookup that will define it
+     * @param methods       interface methods to implement
+     * @param loggedMethods for each method, its timer id, or -1 if not logged
+     */
+    static byte[] write(String className, Class<?> interfaceType, List<Method> methods, int[] loggedMethods) {
+        return new InterceptorClassWriter(className, interfaceType).write(methods, loggedMethods);
+    }
+
+    private byte[] write(List<Method> methods, int[] loggedMethods) {
+        try {
+            // Methods first: they fill the constant pool, which precedes them in the file
+            ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(methodBytes);
+            writeConstructor(out);
+            for (int i = 0; i < methods.size(); i++) {
+                writeMethod(out, methods.get(i), loggedMethods[i]);
+            }
+            int thisClass = pool.classRef(className);
+            int superClass = pool.classRef("java/lang/Object");
+            int iface = pool.classRef(interfaceName);
+            int targetName = pool.utf8("target");
+            int targetDesc = pool.utf8(interfaceDesc);
+            int timerName = pool.utf8("timer");
+            int timerDesc = pool.utf8(TIMER_DESC);
+
+            ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+            DataOutputStream file = new DataOutputStream(classBytes);
+            file.writeInt(0xCAFEBABE);
+            file.writeShort(0);
+            file.writeShort(JAVA_17);
+            pool.writeTo(file);
+            file.writeShort(ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+            file.writeShort(thisClass);
+            file.writeShort(superClass);
+            file.writeShort(1);
+            file.writeShort(iface);
+            file.writeShort(2);
+            writeField(file, targetName, targetDesc);
+            writeField(file, timerName, timerDesc);
+            file.writeShort(methods.size() + 1);
+            methodBytes.writeTo(file);
+            file.writeShort(0); // class attributes
+            return classBytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen with in-memory streams
+        }
+    }
+
+    private static void writeField(DataOutputStream file, int name, int descriptor) throws IOException {
+        file.writeShort(ACC_PRIVATE | ACC_FINAL);
+        file.writeShort(name);
+        file.writeShort(descriptor);
+        file.writeShort(0);
+    }
+
+    /**
+     * (Iface target, CallTimer timer) { super(); this.target = target; this.timer = timer; }
+     */
+    private void writeConstructor(DataOutputStream out) throws IOException {
+        Code code = new Code();
+        code.op(Op.ALOAD_0);
+        code.op(Op.INVOKESPECIAL).u2(pool.methodRef("java/lang/Object", "<init>", "()V"));
+        code.op(Op.ALOAD_0).op(Op.ALOAD_1).op(Op.PUTFIELD).u2(pool.fieldRef(className, "target", interfaceDesc));
+        code.op(Op.ALOAD_0).op(Op.ALOAD_2).op(Op.PUTFIELD).u2(pool.fieldRef(className, "timer", TIMER_DESC));
+        code.op(Op.RETURN);
+        writeMethodInfo(out, ACC_PUBLIC, "<init>", "(" + interfaceDesc + TIMER_DESC + ")V", code, 2, 3, null);
+    }
+
+    private void writeMethod(DataOutputStream out, Method method, int timerId) throws IOException {
+        String descriptor = descriptor(method);
+        Class<?>[] parameters = method.getParameterTypes();
+        int parameterSlots = 0;
+        for (Class<?> parameter : parameters) {
+            parameterSlots += slots(parameter);
+        }
+        int returnSlots = slots(method.getReturnType());
+        int targetCall = pool.interfaceMethodRef(interfaceName, method.getName(), descriptor);
+
+        Code code = new Code();
+        if (timerId < 0) {
+            loadTargetAndArguments(code, parameters);
+            code.op(Op.INVOKEINTERFACE).u2(targetCall).u1(1 + parameterSlots).u1(0);
+            code.op(returnOp(method.getReturnType()));
+            writeMethodInfo(out, ACC_PUBLIC | ACC_FINAL, method.getName(), descriptor, code, Math.max(1 + parameterSlots, returnSlots),
+                    1 + parameterSlots, null);
+            return;
+        }
+
+        int startLocal = 1 + parameterSlots;
+        int nanoTime = pool.methodRef("java/lang/System", "nanoTime", "()J");
+        int record = pool.interfaceMethodRef(TIMER, "record", "(IJ)V");
+
+        code.op(Op.INVOKESTATIC).u2(nanoTime).op(Op.LSTORE).u1(startLocal);
+        int tryStart = code.length();
+        loadTargetAndArguments(code, parameters);
+        code.op(Op.INVOKEINTERFACE).u2(targetCall).u1(1 + parameterSlots).u1(0);
+        int tryEnd = code.length();
+        recordElapsed(code, timerId, startLocal, nanoTime, record);
+        code.op(returnOp(method.getReturnType()));
+        int handler = code.length();
+        recordElapsed(code, timerId, startLocal, nanoTime, record);
+        code.op(Op.ATHROW);
+        code.exceptionHandler(tryStart, tryEnd, handler);
+
+        // Peak stack: result + timer + id + two longs (before lsub)
+        int maxStack = Math.max(1 + parameterSlots, Math.max(returnSlots, 1) + 6);
+        writeMethodInfo(out, ACC_PUBLIC | ACC_FINAL, method.getName(), descriptor, code, maxStack, startLocal + 2,
+                handlerFrame(handler, parameters));
+    }
+
+    private void loadTargetAndArguments(Code code, Class<?>[] parameters) {
+        code.op(Op.ALOAD_0).op(Op.GETFIELD).u2(pool.fieldRef(className, "target", interfaceDesc));
+        int slot = 1;
+        for (Class<?> parameter : parameters) {
+            code.op(loadOp(parameter)).u1(slot);
+            slot += slots(parameter);
+        }
+    }
+
+    /**
+     * timer.record(id, System.nanoTime() - start)
+     */
+    private void recordElapsed(Code code, int timerId, int startLocal, int nanoTime, int record) {
+        code.op(Op.ALOAD_0).op(Op.GETFIELD).u2(pool.fieldRef(className, "timer", TIMER_DESC));
+        code.op(Op.SIPUSH).u2(timerId);
+        code.op(Op.INVOKESTATIC).u2(nanoTime).op(Op.LLOAD).u1(startLocal).op(Op.LSUB);
+        code.op(Op.INVOKEINTERFACE).u2(record).u1(4).u1(0);
+    }
+
+    /**
+     * StackMapTable with one full_frame at the handler: locals are this, the
+     * parameters and the start time; the stack holds the Throwable.
+     */
+    private byte[] handlerFrame(int handlerOffset, Class<?>[] parameters) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream frame = new DataOutputStream(bytes);
+        frame.writeShort(1); // number_of_entries
+        frame.writeByte(255); // full_frame
+        frame.writeShort(handlerOffset);
+        frame.writeShort(parameters.length + 2);
+        writeVerificationType(frame, className);
+        for (Class<?> parameter : parameters) {
+            writeVerificationType(frame, parameter);
+        }
+        frame.writeByte(4); // Long
+        frame.writeShort(1);
+        writeVerificationType(frame, "java/lang/Throwable");
+        return bytes.toByteArray();
+    }
+
+    private void writeVerificationType(DataOutputStream frame, Class<?> type) throws IOException {
+        if (type == long.class) {
+            frame.writeByte(4);
+        } else if (type == double.class) {
+            frame.writeByte(3);
+        } else if (type == float.class) {
+            frame.writeByte(2);
+        } else if (type.isPrimitive()) {
+            frame.writeByte(1); // int, short, char, byte, boolean
+        } else {
+            writeVerificationType(frame, type.isArray() ? type.getName().replace('.', '/') : internalName(type));
+        }
+    }
+
+    private void writeVerificationType(DataOutputStream frame, String internalName) throws IOException {
+        frame.writeByte(7); // Object
+        frame.writeShort(pool.classRef(internalName));
+    }
+
+    private void writeMethodInfo(DataOutputStream out, int access, String name, String descriptor, Code code, int maxStack,
+            int maxLocals, byte[] stackMapTable) throws IOException {
+        if (maxLocals > 255) {
+            throw new IllegalArgumentException("Too many parameters to intercept: " + name);
+        }
+        out.writeShort(access);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(1);
+        byte[] bytecode = code.bytes.toByteArray();
+        ByteArrayOutputStream attribute = new ByteArrayOutputStream();
+        DataOutputStream codeAttribute = new DataOutputStream(attribute);
+        codeAttribute.writeShort(maxStack);
+        codeAttribute.writeShort(maxLocals);
+        codeAttribute.writeInt(bytecode.length);
+        codeAttribute.write(bytecode);
+        codeAttribute.writeShort(code.handlers.size() / 3);
+        for (int i = 0; i < code.handlers.size(); i += 3) {
+            codeAttribute.writeShort(code.handlers.get(i));
+            codeAttribute.writeShort(code.handlers.get(i + 1));
+            codeAttribute.writeShort(code.handlers.get(i + 2));
+            codeAttribute.writeShort(0); // catch any (finally)
+        }
+        if (stackMapTable == null) {
+            codeAttribute.writeShort(0);
+        } else {
+            codeAttribute.writeShort(1);
+            codeAttribute.writeShort(pool.utf8("StackMapTable"));
+            codeAttribute.writeInt(stackMapTable.length);
+            codeAttribute.write(stackMapTable);
+        }
+        out.writeShort(pool.utf8("Code"));
+        out.writeInt(attribute.size());
+        attribute.writeTo(out);
+    }
+
+    static String descriptor(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> parameter : method.getParameterTypes()) {
+            descriptor.append(parameter.descriptorString());
+        }
+        return descriptor.append(')').append(method.getReturnType().descriptorString()).toString();
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static int slots(Class<?> type) {
+        if (type == void.class) {
+            return 0;
+        }
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    private static int loadOp(Class<?> type) {
+        if (type == long.class) {
+            return Op.LLOAD;
+        } else if (type == double.class) {
+            return Op.DLOAD;
+        } else if (type == float.class) {
+            return Op.FLOAD;
+        }
+        return type.isPrimitive() ? Op.ILOAD : Op.ALOAD;
+    }
+
+    private static int returnOp(Class<?> type) {
+        if (type == void.class) {
+            return Op.RETURN;
+        } else if (type == long.class) {
+            return Op.LRETURN;
+        } else if (type == double.class) {
+            return Op.DRETURN;
+        } else if (type == float.class) {
+            return Op.FRETURN;
+        }
+        return type.isPrimitive() ? Op.IRETURN : Op.ARETURN;
+    }
+
+    /**
+     * The JVM opcodes used above.
+     */
+    private static final class Op {
+        static final int ALOAD_0 = 0x2A;
+        static final int ALOAD_1 = 0x2B;
+        static final int ALOAD_2 = 0x2C;
+        static final int SIPUSH = 0x11;
+        static final int ILOAD = 0x15;
+        static final int LLOAD = 0x16;
+        static final int FLOAD = 0x17;
+        static final int DLOAD = 0x18;
+        static final int ALOAD = 0x19;
+        static final int LSTORE = 0x37;
+        static final int LSUB = 0x65;
+        static final int IRETURN = 0xAC;
+        static final int LRETURN = 0xAD;
+        static final int FRETURN = 0xAE;
+        static final int DRETURN = 0xAF;
+        static final int ARETURN = 0xB0;
+        static final int RETURN = 0xB1;
+        static final int GETFIELD = 0xB4;
+        static final int PUTFIELD = 0xB5;
+        static final int INVOKESPECIAL = 0xB7;
+        static final int INVOKESTATIC = 0xB8;
+        static final int INVOKEINTERFACE = 0xB9;
+        static final int ATHROW = 0xBF;
+    }
+
+    /**
+     * Bytecode of one method plus its exception table (start, end, handler triples).
+     */
+    private static final class Code {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final List<Integer> handlers = new ArrayList<>();
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        int length() {
+            return bytes.size();
+        }
+
+        void exceptionHandler(int start, int end, int handler) {
+            handlers.add(start);
+            handlers.add(end);
+            handlers.add(handler);
+        }
+    }
+
+    /**
+     * Deduplicating constant pool. Indexes start at 1, as the format requires.
+     */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, () -> {
+                out.writeByte(1);
+                out.writeUTF(value); // modified UTF-8 with a u2 length: exactly the class file encoding
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, () -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        int interfaceMethodRef(String owner, String name, String descriptor) {
+            return memberRef(11, owner, name, descriptor);
+        }
+
+        void writeTo(DataOutputStream file) throws IOException {
+            file.writeShort(count);
+            bytes.writeTo(file);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + ":" + descriptor, () -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry(tag + owner + "." + name + ":" + descriptor, () -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(String key, EntryWriter writer) {
+            Integer existing = indexes.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            indexes.put(key, count);
+            return count++;
+        }
+
+        @FunctionalInterface
+        private interface EntryWriter {
+            void write() throws IOException;
+        }
+    }
+}
@@ -8,8 +8,30 @@ import java.lang.annotation.Target;
 /**
  * Marker annotation for methods that should be logged by the Dynamic Proxy.
  * Run-time retention is required so the Reflection API can see it.
+ *
+ * Every call is counted into the method's metrics; the attributes only decide
+ * which calls are also printed. The defaults print every call, so the bare
+ * annotation on GenericRepository.add keeps the Entering/Exiting lines of the
+ * AOP demo. Slow-call-only printing is opt-in per method: a hot method would
+ * use e.g. {@code @Logged(sampleRate = 0.001, slowThresholdMicros = 5_000)}.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Logged {
+
+    /**
+     * Fraction of calls (0.0 to 1.0) that print Entering/Exiting lines.
+     */
+    double sampleRate() default 1.0;
+
+    /**
+     * Calls at least this slow are always printed; negative disables it.
+     */
+    long slowThresholdMicros() default -1;
+
+    /**
+     * Name the method's metrics are aggregated under; defaults to the method
+     * name. Methods sharing a name share their metrics.
+     */
+    String metric() default "";
 }
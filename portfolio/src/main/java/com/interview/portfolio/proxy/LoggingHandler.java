@@ -1,33 +1,131 @@
 package com.interview.portfolio.proxy;
 
+import java.io.PrintStream;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 /**
  * A Dynamic Proxy InvocationHandler.
  * Intercepts method calls to the target object.
  * This is the underlying mechanism for Spring AOP (Aspect Oriented
  * Programming).
+ *
+ * Every @Logged call is aggregated into per-metric counters (LongAdder, i.e.
+ * striped cells, plus a LatencyHistogram), which costs a few increments.
+ * Printing is what is expensive, so only sampled calls (Logged.sampleRate),
+ * slow calls (Logged.slowThresholdMicros) and, optionally, a periodic summary
+ * of all metrics are printed.
  */
 public class LoggingHandler implements InvocationHandler {
 
+    /**
+     * Counters shared by every method reporting under one metric name.
+     */
+    private static final class Metrics {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder slowCalls = new LongAdder();
+    }
+
+    /**
+     * The annotation of one method, read once.
+     */
+    private record Policy(boolean logged, double sampleRate, long slowThresholdNanos, Metrics metrics) {
+        static final Policy NOT_LOGGED = new Policy(false, 0, -1, null);
+    }
+
     private final Object target;
+    private final PrintStream out;
+    private final LongSupplier nanoClock;
+    private final long summaryIntervalNanos;
+    private final AtomicLong nextSummaryAt;
+    private final Map<Method, Policy> policies = new ConcurrentHashMap<>();
+    private final Map<String, Metrics> metrics = new ConcurrentHashMap<>();
 
     public LoggingHandler(Object target) {
+        this(target, null, null);
+    }
+
+    /**
+     * @param summaryInterval how often a summary of all metrics is printed, or
+     *                        null for never (stats() is always available)
+     * @param out             where lines go; null for System.out
+     */
+    public LoggingHandler(Object target, Duration summaryInterval, PrintStream out) {
+        this(target, summaryInterval, out, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock replaces System.nanoTime, so tests control call latencies
+     */
+    LoggingHandler(Object target, Duration summaryInterval, PrintStream out, LongSupplier nanoClock) {
+        if (summaryInterval != null && (summaryInterval.isNegative() || summaryInterval.isZero())) {
+            throw new IllegalArgumentException("Summary interval must be positive");
+        }
         this.target = target;
+        this.out = out;
+        this.nanoClock = nanoClock;
+        this.summaryIntervalNanos = summaryInterval == null ? -1 : summaryInterval.toNanos();
+        this.nextSummaryAt = new AtomicLong(nanoClock.getAsLong() + summaryIntervalNanos);
     }
 
     /**
      * Factory method to create a Proxy instance for a given interface.
      */
-    @SuppressWarnings("unchecked")
     public static <T> T createProxy(Object target, Class<T> interfaceType) {
+        return createProxy(target, interfaceType, null, null);
+    }
+
+    public static <T> T createProxy(Object target, Class<T> interfaceType, Duration summaryInterval, PrintStream out) {
+        return createProxy(target, interfaceType, summaryInterval, out, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T createProxy(Object target, Class<T> interfaceType, Duration summaryInterval, PrintStream out,
+                             LongSupplier nanoClock) {
         return (T) Proxy.newProxyInstance(
                 interfaceType.getClassLoader(),
                 new Class<?>[] { interfaceType },
-                new LoggingHandler(target));
+                new LoggingHandler(target, summaryInterval, out, nanoClock));
+    }
+
+    /**
+     * The handler behind a proxy made by createProxy, to read its metrics.
+     */
+    public static LoggingHandler handlerOf(Object proxy) {
+        return (LoggingHandler) Proxy.getInvocationHandler(proxy);
+    }
+
+    /**
+     * Metrics of every @Logged method called so far, by metric name.
+     */
+    public Map<String, MethodStats> stats() {
+        Map<String, MethodStats> stats = new TreeMap<>();
+        metrics.forEach((name, m) -> stats.put(name, new MethodStats(m.latencies.count(), m.errors.sum(),
+                m.slowCalls.sum(), m.latencies.meanNanos(), m.latencies.percentileNanos(50),
+                m.latencies.percentileNanos(99))));
+        return stats;
+    }
+
+    /**
+     * Prints one summary line per metric.
+     */
+    public void printSummary() {
+        PrintStream stream = stream();
+        stats().forEach((name, s) -> stream.println("[PROXY] Summary " + name + " | calls: " + s.calls()
+                + " | errors: " + s.errors() + " | slow: " + s.slowCalls()
+                + " | p50: " + (s.p50Nanos() / 1000) + " micros | p99: " + (s.p99Nanos() / 1000) + " micros"));
     }
 
     @Override
@@ -37,28 +135,102 @@ public class LoggingHandler implements InvocationHandler {
         // interface
         // depending on where the annotation is placed. Ideally, it's on the interface
         // for proxies.
-        // For this demo, we check the interface method.
-        boolean isLogged = method.isAnnotationPresent(Logged.class);
-
-        if (isLogged) {
-            System.out.println("[PROXY] Entering method: " + method.getName() + " with args: " + Arrays.toString(args));
-            long start = System.nanoTime();
-            try {
-                // Delegate to the actual object
-                Object result = method.invoke(target, args);
-
-                long duration = System.nanoTime() - start;
-                System.out.println(
-                        "[PROXY] Exiting method: " + method.getName() + " | Time: " + (duration / 1000) + " micros");
+        // For this demo, we check the interface method (once, then cached).
+        Policy policy = policies.get(method);
+        if (policy == null) {
+            policy = policies.computeIfAbsent(method, this::resolve);
+        }
 
-                return result;
-            } catch (Exception e) {
-                // Unwrap reflection exception
-                throw e.getCause();
-            }
-        } else {
+        if (!policy.logged()) {
             // Just pass through
+            return call(method, args);
+        }
+
+        boolean sampled = sample(policy.sampleRate());
+        if (sampled) {
+            stream().println("[PROXY] Entering method: " + method.getName() + " with args: " + Arrays.toString(args));
+        }
+        long start = nanoClock.getAsLong();
+        boolean failed = true;
+        try {
+            // Delegate to the actual object
+            Object result = call(method, args);
+            failed = false;
+            return result;
+        } finally {
+            long duration = nanoClock.getAsLong() - start;
+            Metrics m = policy.metrics();
+            m.latencies.record(duration);
+            if (failed) {
+                m.errors.increment();
+            }
+            boolean slow = policy.slowThresholdNanos() >= 0 && duration >= policy.slowThresholdNanos();
+            if (slow) {
+                m.slowCalls.increment();
+            }
+            if (sampled) {
+                stream().println(
+                        "[PROXY] Exiting method: " + method.getName() + " | Time: " + (duration / 1000) + " micros");
+            } else if (slow) {
+                stream().println("[PROXY] Slow call: " + method.getName() + " | Time: " + (duration / 1000) + " micros");
+            }
+            maybePrintSummary(start + duration);
+        }
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
             return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            // Unwrap reflection exception
+            throw e.getCause();
+        }
+    }
+
+    private static boolean sample(double rate) {
+        if (rate >= 1.0) {
+            return true;
         }
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Whichever caller first notices the interval has elapsed prints the
+     * summary; the others only pay a volatile read.
+     */
+    private void maybePrintSummary(long now) {
+        if (summaryIntervalNanos < 0) {
+            return;
+        }
+        long due = nextSummaryAt.get();
+        if (now - due >= 0 && nextSummaryAt.compareAndSet(due, now + summaryIntervalNanos)) {
+            printSummary();
+        }
+    }
+
+    private Policy resolve(Method method) {
+        Logged logged = method.getAnnotation(Logged.class);
+        if (logged == null) {
+            return Policy.NOT_LOGGED;
+        }
+        if (!(logged.sampleRate() >= 0.0 && logged.sampleRate() <= 1.0)) {
+            throw new IllegalArgumentException("@Logged sampleRate must be within [0, 1]: " + method);
+        }
+        long slowThresholdNanos = logged.slowThresholdMicros() < 0 ? -1 : logged.slowThresholdMicros() * 1000;
+        Metrics m = metrics.computeIfAbsent(metricName(method), name -> new Metrics());
+        return new Policy(true, logged.sampleRate(), slowThresholdNanos, m);
+    }
+
+    private PrintStream stream() {
+        // Read System.out per call, so redirecting it after proxy creation works
+        return out == null ? System.out : out;
+    }
+
+    /**
+     * Logged.metric() if set, otherwise the method name.
+     */
+    static String metricName(Method method) {
+        Logged logged = method.getAnnotation(Logged.class);
+        return logged == null || logged.metric().isEmpty() ? method.getName() : logged.metric();
     }
 }
@@ -0,0 +1,11 @@
+package com.interview.portfolio.proxy;
+
+/**
+ * Aggregated metrics of one @Logged metric name, as seen by LoggingHandler.
+ */
+public record MethodStats(long calls, long errors, long slowCalls, double meanNanos, long p50Nanos, long p99Nanos) {
+
+    public double errorRate() {
+        return calls == 0 ? 0.0 : (double) errors / calls;
+    }
+}
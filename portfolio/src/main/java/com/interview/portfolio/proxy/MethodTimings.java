@@ -0,0 +1,33 @@
+package com.interview.portfolio.proxy;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-method latency histograms filled by generated proxies. One instance can
+ * be shared by several proxies; methods with the same metric name share a
+ * histogram, as in FastLoggingHandler.
+ */
+public class MethodTimings {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Histograms of the @Logged methods called so far, by metric name.
+     */
+    public Map<String, LatencyHistogram> histograms() {
+        Map<String, LatencyHistogram> called = new TreeMap<>();
+        // Proxies resolve their histograms up front; report only methods actually called
+        histograms.forEach((name, histogram) -> {
+            if (histogram.count() > 0) {
+                called.put(name, histogram);
+            }
+        });
+        return called;
+    }
+
+    LatencyHistogram histogram(String methodName) {
+        return histograms.computeIfAbsent(methodName, name -> new LatencyHistogram());
+    }
+}
@@ -0,0 +1,243 @@
+package com.interview.portfolio.repository;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.RestrictedStock;
+import com.interview.portfolio.domain.Stock;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Out-of-core access to a file written by AssetFileWriter, for asset
+ * universes that do not fit in the heap.
+ *
+ * The file is mapped read-only in regions of up to REGION_BYTES (the same
+ * MappedByteBuffer approach as LargeFileProcessor, but in pieces, so files
+ * may exceed the 2 GB limit of a single mapping). A region is mapped the
+ * first time it is touched and shared by all readers after that. Its pages
+ * live in the OS page cache, not the heap, and are loaded and evicted by the
+ * OS as the scan moves along.
+ *
+ * Records are decoded into short-lived Assets as they are consumed, so heap
+ * use stays constant however large the file. stream() and asList() split on
+ * region boundaries, so a parallel stream gives each core its own regions.
+ * asList() lets the List-based StreamAnalytics and ParallelStreamAnalytics
+ * methods run over the file unchanged.
+ *
+ * Streams must be consumed before close(): regions not yet mapped can no
+ * longer be mapped once the channel is closed.
+ */
+public class AssetFileReader implements AutoCloseable {
+
+    public static final long REGION_BYTES = 64L << 20;
+
+    // Stop splitting below this many records
+    private static final long MIN_SPLIT_RECORDS = 1_024;
+
+    private final FileChannel channel;
+    private final long count;
+    private final long regionRecords;
+    private final AtomicReferenceArray<MappedByteBuffer> regions;
+
+    public AssetFileReader(Path file) throws IOException {
+        this(file, REGION_BYTES);
+    }
+
+    /**
+     * @param regionBytes size of each mapping, rounded down to whole records
+     */
+    AssetFileReader(Path file, long regionBytes) throws IOException {
+        this.regionRecords = Math.min(regionBytes, Integer.MAX_VALUE) / AssetFileWriter.RECORD_SIZE;
+        if (regionRecords <= 0) {
+            throw new IllegalArgumentException("Region must hold at least one record: " + regionBytes);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(AssetFileWriter.HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(AssetFileWriter.MAGIC_OFFSET) != AssetFileWriter.MAGIC
+                    || header.getInt(AssetFileWriter.RECORD_SIZE_OFFSET) != AssetFileWriter.RECORD_SIZE) {
+                throw new IOException("Not an asset file: " + file);
+            }
+            this.count = header.getLong(AssetFileWriter.COUNT_OFFSET);
+            if (channel.size() != AssetFileWriter.HEADER_SIZE + count * AssetFileWriter.RECORD_SIZE) {
+                throw new IOException("Truncated or unfinished asset file: " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.regions = new AtomicReferenceArray<>(Math.toIntExact((count + regionRecords - 1) / regionRecords));
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Decodes record i.
+     */
+    public Asset get(long index) {
+        Objects.checkIndex(index, count);
+        return decode(region(index / regionRecords), (int) (index % regionRecords));
+    }
+
+    public Stream<Asset> stream() {
+        return StreamSupport.stream(new RecordSpliterator(0, count), false);
+    }
+
+    public Stream<Asset> parallelStream() {
+        return StreamSupport.stream(new RecordSpliterator(0, count), true);
+    }
+
+    /**
+     * Read-only random-access view of the file. Elements are decoded on every
+     * get, and stream()/parallelStream() use the region-splitting spliterator.
+     *
+     * @throws IllegalStateException if the file holds more than Integer.MAX_VALUE records
+     */
+    public List<Asset> asList() {
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many records for a List view: " + count);
+        }
+        return new RecordList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer region(long index) {
+        int i = (int) index;
+        MappedByteBuffer region = regions.get(i);
+        if (region == null) {
+            long first = i * regionRecords;
+            long records = Math.min(regionRecords, count - first);
+            try {
+                region = channel.map(FileChannel.MapMode.READ_ONLY,
+                        AssetFileWriter.HEADER_SIZE + first * AssetFileWriter.RECORD_SIZE,
+                        records * AssetFileWriter.RECORD_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Two threads may race to map the same region; one mapping wins
+            if (!regions.compareAndSet(i, null, region)) {
+                region = regions.get(i);
+            }
+        }
+        return region;
+    }
+
+    private static Asset decode(MappedByteBuffer region, int record) {
+        // slice() is a view over the mapping: no copy, and no shared position between threads
+        ByteBuffer in = region.slice(record * AssetFileWriter.RECORD_SIZE, AssetFileWriter.RECORD_SIZE);
+        byte type = in.get();
+        String symbol = MappedAssetRepository.getString(in);
+        BigDecimal price = MappedAssetRepository.getDecimal(in);
+        if (type == AssetFileWriter.TYPE_BOND) {
+            return new Bond(symbol, price, MappedAssetRepository.getDecimal(in));
+        }
+        String name = MappedAssetRepository.getString(in);
+        String sector = MappedAssetRepository.getString(in);
+        if (type == AssetFileWriter.TYPE_RESTRICTED_STOCK) {
+            return new RestrictedStock(symbol, name, sector, price, in.getInt());
+        }
+        return new Stock(symbol, name, sector, price);
+    }
+
+    private final class RecordList extends AbstractList<Asset> implements RandomAccess {
+
+        @Override
+        public Asset get(int index) {
+            return AssetFileReader.this.get(Objects.checkIndex(index, (int) count));
+        }
+
+        @Override
+        public int size() {
+            return (int) count;
+        }
+
+        @Override
+        public Spliterator<Asset> spliterator() {
+            return new RecordSpliterator(0, count);
+        }
+    }
+
+    /**
+     * Walks the record range [from, to). A range spanning several regions is
+     * split on a region boundary near its middle, so each half maps only its
+     * own regions; within one region it is halved.
+     */
+    private final class RecordSpliterator implements Spliterator<Asset> {
+        private long from;
+        private final long to;
+
+        RecordSpliterator(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Asset> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(get(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Asset> action) {
+            // One region lookup per region rather than per record
+            while (from < to) {
+                long regionIndex = from / regionRecords;
+                MappedByteBuffer region = region(regionIndex);
+                long end = Math.min(to, (regionIndex + 1) * regionRecords);
+                for (int record = (int) (from % regionRecords); from < end; record++, from++) {
+                    action.accept(decode(region, record));
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<Asset> trySplit() {
+            if (to - from < MIN_SPLIT_RECORDS) {
+                return null;
+            }
+            long mid = (from + to) >>> 1;
+            long boundary = mid - mid % regionRecords;
+            if (boundary > from) {
+                mid = boundary;
+            }
+            Spliterator<Asset> prefix = new RecordSpliterator(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
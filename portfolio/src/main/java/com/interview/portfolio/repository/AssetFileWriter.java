@@ -0,0 +1,141 @@
+package com.interview.portfolio.repository;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.RestrictedStock;
+import com.interview.portfolio.domain.Stock;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes an append-only asset file for AssetFileReader.
+ *
+ * File layout: a header (magic, record size, record count) followed by
+ * fixed-size records. Fixed-size records make record i a computed offset, so a
+ * reader can split the file anywhere without scanning it. Records are
+ * batched in a direct buffer and written with one channel write per batch;
+ * the count is patched into the header on close, so a file whose writer did
+ * not close is rejected by the reader.
+ */
+public class AssetFileWriter implements AutoCloseable {
+
+    static final int RECORD_SIZE = 128;
+    static final int HEADER_SIZE = 16;
+    static final int MAGIC = 0x41535446; // "ASTF"
+
+    // Header offsets
+    static final int MAGIC_OFFSET = 0;
+    static final int RECORD_SIZE_OFFSET = 4;
+    static final int COUNT_OFFSET = 8;
+
+    // Record type codes
+    static final byte TYPE_STOCK = 1;
+    static final byte TYPE_RESTRICTED_STOCK = 2;
+    static final byte TYPE_BOND = 3;
+
+    private static final int BATCH_RECORDS = 1_024;
+
+    private final FileChannel channel;
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * RECORD_SIZE);
+    private final byte[] record = new byte[RECORD_SIZE];
+    private long count;
+    private boolean closed;
+
+    /**
+     * Creates the file, replacing any existing one.
+     */
+    public AssetFileWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(HEADER_SIZE);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the asset does not fit in a RECORD_SIZE byte record
+     */
+    public void append(Asset asset) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        encode(asset, record);
+        batch.put(record);
+        count++;
+        if (!batch.hasRemaining()) {
+            flush();
+        }
+    }
+
+    public void appendAll(Iterable<? extends Asset> assets) throws IOException {
+        for (Asset asset : assets) {
+            append(asset);
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+            header.putLong(COUNT_OFFSET, count);
+            channel.write(header, 0);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Record: type, symbol, price, then type-specific fields, zero-padded.
+     * Same field encodings as MappedAssetRepository.
+     */
+    static void encode(Asset asset, byte[] record) {
+        ByteBuffer out = ByteBuffer.wrap(record);
+        try {
+            if (asset instanceof RestrictedStock) {
+                out.put(TYPE_RESTRICTED_STOCK);
+            } else if (asset instanceof Stock) {
+                out.put(TYPE_STOCK);
+            } else {
+                out.put(TYPE_BOND);
+            }
+            MappedAssetRepository.putString(out, asset.getSymbol());
+            MappedAssetRepository.putDecimal(out, asset.getPrice());
+            if (asset instanceof Stock s) {
+                MappedAssetRepository.putString(out, s.getName());
+                MappedAssetRepository.putString(out, s.getSector());
+                if (s instanceof RestrictedStock r) {
+                    out.putInt(r.getLockupPeriodMonths());
+                }
+            } else if (asset instanceof Bond b) {
+                MappedAssetRepository.putDecimal(out, b.getInterestRate());
+            }
+        } catch (BufferOverflowException e) {
+            throw new IllegalArgumentException("Asset " + asset.getSymbol() + " does not fit in a "
+                    + RECORD_SIZE + " byte record");
+        }
+        Arrays.fill(record, out.position(), RECORD_SIZE, (byte) 0);
+    }
+}
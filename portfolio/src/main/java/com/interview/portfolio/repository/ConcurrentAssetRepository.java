@@ -0,0 +1,192 @@
+package com.interview.portfolio.repository;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Stock;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe, indexed alternative to MapBasedGenericRepository.
+ *
+ * - Primary index: ConcurrentHashMap id -> entity (lock-free reads).
+ * - Secondary indexes: class -> ids, sector -> ids, price -> ids.
+ * They hold ids (not entities), so saving the same id twice replaces the entry
+ * instead of appending a duplicate.
+ * - Price index: ConcurrentSkipListMap, a sorted concurrent map that supports
+ * range queries (subMap) without locking the whole structure.
+ *
+ * Writes to one id are serialized through ConcurrentHashMap.compute, which
+ * also moves the id between secondary index entries when the class, sector or
+ * price changes. Secondary indexes are weakly consistent with the primary one,
+ * so queries re-check every candidate against the primary index.
+ */
+public class ConcurrentAssetRepository<T extends Asset> implements GenericRepository<T> {
+
+    // Below this many entities saveAll runs sequentially: forking costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final ConcurrentMap<String, T> storage;
+    private final ConcurrentMap<Class<?>, Set<String>> idsByClass = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> idsBySector = new ConcurrentHashMap<>();
+    // Values are immutable sets replaced on every change: ConcurrentSkipListMap.compute
+    // may retry the remapping function, so it must not mutate shared state.
+    private final ConcurrentNavigableMap<BigDecimal, Set<String>> idsByPrice = new ConcurrentSkipListMap<>();
+
+    public ConcurrentAssetRepository() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize number of entities expected, so a bulk load doesn't
+     *                     resize the primary index over and over
+     */
+    public ConcurrentAssetRepository(int expectedSize) {
+        this.storage = new ConcurrentHashMap<>(expectedSize);
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(storage.get(id));
+    }
+
+    @Override
+    public void save(String id, T entity) {
+        storage.compute(id, (key, previous) -> {
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            index(key, entity);
+            return entity;
+        });
+    }
+
+    /**
+     * Saves the asset under its symbol.
+     */
+    @Override
+    public void add(T entity) {
+        save(entity.getSymbol(), entity);
+    }
+
+    /**
+     * Every write goes through the thread-safe save path, so large batches are
+     * simply saved from a parallel stream: the primary and secondary indexes are
+     * then built by all cores at once.
+     */
+    @Override
+    public void saveAll(Map<String, ? extends T> entities) {
+        if (entities.size() < PARALLEL_THRESHOLD) {
+            entities.forEach(this::save);
+        } else {
+            entities.entrySet().parallelStream().forEach(entry -> save(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Backed by ConcurrentHashMap's spliterator: weakly consistent (never throws
+     * ConcurrentModificationException) and splits by hash bins.
+     */
+    @Override
+    public Stream<T> scan() {
+        return storage.values().stream();
+    }
+
+    public void remove(String id) {
+        storage.computeIfPresent(id, (key, previous) -> {
+            unindex(key, previous);
+            return null;
+        });
+    }
+
+    public int size() {
+        return storage.size();
+    }
+
+    /**
+     * All entities whose exact runtime class is the given type.
+     */
+    public <S extends T> List<S> findAllByType(Class<S> type) {
+        return resolve(idsByClass.getOrDefault(type, Set.of()), entity -> entity.getClass() == type)
+                .stream()
+                .map(type::cast)
+                .toList();
+    }
+
+    public List<T> findBySector(String sector) {
+        return resolve(idsBySector.getOrDefault(sector, Set.of()),
+                entity -> entity instanceof Stock s && s.getSector().equals(sector));
+    }
+
+    /**
+     * Entities with min <= price <= max, in ascending price order, each at
+     * most once. Under concurrent writes the order is by the price the id was
+     * indexed under; an id moving between two price buckets during the query
+     * may be seen in both, hence distinct().
+     */
+    public List<T> findByPriceRange(BigDecimal min, BigDecimal max) {
+        return idsByPrice.subMap(min, true, max, true).values().stream()
+                .flatMap(Set::stream)
+                .distinct()
+                .map(storage::get)
+                .filter(entity -> entity != null
+                        && entity.getPrice().compareTo(min) >= 0
+                        && entity.getPrice().compareTo(max) <= 0)
+                .toList();
+    }
+
+    private List<T> resolve(Set<String> ids, Predicate<T> stillMatches) {
+        return ids.stream()
+                .map(storage::get)
+                .filter(entity -> entity != null && stillMatches.test(entity))
+                .toList();
+    }
+
+    private void index(String id, T entity) {
+        addId(idsByClass, entity.getClass(), id);
+        if (entity instanceof Stock s) {
+            addId(idsBySector, s.getSector(), id);
+        }
+        idsByPrice.compute(entity.getPrice(), (price, ids) -> {
+            Set<String> updated = ids == null ? new HashSet<>() : new HashSet<>(ids);
+            updated.add(id);
+            return Set.copyOf(updated);
+        });
+    }
+
+    private void unindex(String id, T entity) {
+        removeId(idsByClass, entity.getClass(), id);
+        if (entity instanceof Stock s) {
+            removeId(idsBySector, s.getSector(), id);
+        }
+        idsByPrice.computeIfPresent(entity.getPrice(), (price, ids) -> {
+            Set<String> updated = new HashSet<>(ids);
+            updated.remove(id);
+            return updated.isEmpty() ? null : Set.copyOf(updated);
+        });
+    }
+
+    private static <K> void addId(Map<K, Set<String>> index, K key, String id) {
+        index.compute(key, (k, ids) -> {
+            Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(id);
+            return result;
+        });
+    }
+
+    private static <K> void removeId(Map<K, Set<String>> index, K key, String id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
@@ -1,6 +1,10 @@
 package com.interview.portfolio.repository;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface GenericRepository<T> {
     Optional<T> findById(String id);
@@ -9,4 +13,39 @@ public interface GenericRepository<T> {
 
     @com.interview.portfolio.proxy.Logged
     void add(T entity);
+
+    /**
+     * Bulk save. The default is one save per entry; implementations override it
+     * to pre-size their structures or build indexes in parallel.
+     */
+    default void saveAll(Map<String, ? extends T> entities) {
+        entities.forEach(this::save);
+    }
+
+    /**
+     * Bulk lookup.
+     *
+     * @return the entities found, keyed by id in the order of the request; ids
+     *         that don't exist are absent from the map
+     */
+    default Map<String, T> findAllById(Collection<String> ids) {
+        Map<String, T> found = new LinkedHashMap<>();
+        for (String id : ids) {
+            findById(id).ifPresent(entity -> found.put(id, entity));
+        }
+        return found;
+    }
+
+    /**
+     * Streams every stored entity. The stream is backed by a Spliterator that
+     * splits well, so scan().parallel() spreads the work across cores.
+     *
+     * A default so that existing implementations keep compiling; those that
+     * can't enumerate their contents leave it unsupported.
+     *
+     * @throws UnsupportedOperationException if the repository does not support scanning
+     */
+    default Stream<T> scan() {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support scan()");
+    }
 }
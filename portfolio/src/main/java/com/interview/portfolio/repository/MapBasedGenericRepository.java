@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class MapBasedGenericRepository<T> implements GenericRepository<T> {
     private final Map<String, T> storage = new HashMap<>();
@@ -35,4 +36,32 @@ public class MapBasedGenericRepository<T> implements GenericRepository<T> {
             storage.put(asset.getSymbol(), entity);
         }
     }
+
+    /**
+     * Same result as calling save for each entry, but HashMap.putAll resizes the
+     * table once up front instead of rehashing repeatedly while it grows, and
+     * each class's registry list is appended to in one addAll.
+     */
+    @Override
+    public void saveAll(Map<String, ? extends T> entities) {
+        storage.putAll(entities);
+        Map<Class<?>, List<T>> byClass = new HashMap<>();
+        for (T entity : entities.values()) {
+            byClass.computeIfAbsent(entity.getClass(), k -> new ArrayList<>()).add(entity);
+            if (entity instanceof Asset asset) {
+                storage.put(asset.getSymbol(), entity);
+            }
+        }
+        byClass.forEach((clazz, entitiesOfClass) ->
+                assetRegistry.computeIfAbsent(clazz, k -> new ArrayList<>()).addAll(entitiesOfClass));
+    }
+
+    /**
+     * One element per id: an Asset saved under an id other than its symbol is
+     * stored, and therefore streamed, under both keys.
+     */
+    @Override
+    public Stream<T> scan() {
+        return storage.values().stream();
+    }
 }
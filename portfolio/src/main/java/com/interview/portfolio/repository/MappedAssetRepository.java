@@ -0,0 +1,540 @@
+package com.interview.portfolio.repository;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.RestrictedStock;
+import com.interview.portfolio.domain.Stock;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Persistent GenericRepository backed by a memory-mapped file.
+ *
+ * File layout: a small header followed by a fixed number of fixed-size
+ * records. The record area is itself the on-disk hash index: a key lives in
+ * slot hash(key) % capacity, with linear probing on collisions (open
+ * addressing). So:
+ * - Startup = mapping the file. Nothing is deserialized up front.
+ * - findById probes a few slots, compares key bytes in place, and decodes
+ * only the matching record.
+ * - Writes go to a write-ahead log (fsync) before the mapped record is
+ * written. After a crash, complete log entries are replayed on the next open.
+ *
+ * Capacity is fixed when the file is created (MAX_LOAD_FACTOR limits how full
+ * it may get), and each record must fit in RECORD_SIZE bytes.
+ * The mapping stays limited to 2 GB, the MappedByteBuffer maximum.
+ */
+public class MappedAssetRepository implements GenericRepository<Asset>, AutoCloseable {
+
+    static final int RECORD_SIZE = 256;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC = 0x41535354; // "ASST"
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    // saveAll commits in chunks of this many records (one log force per chunk)
+    private static final int BATCH_SIZE = 4_096;
+    // scan() stops splitting below this many slots
+    private static final int MIN_SPLIT_SLOTS = 1_024;
+
+    // Header offsets
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+
+    // Record status / type codes
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte TYPE_STOCK = 1;
+    private static final byte TYPE_RESTRICTED_STOCK = 2;
+    private static final byte TYPE_BOND = 3;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final WriteAheadLog wal;
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int count;
+
+    /**
+     * Opens (or creates with the given capacity) the repository file. The
+     * write-ahead log lives next to it with a ".wal" suffix.
+     */
+    public MappedAssetRepository(Path file, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        WriteAheadLog wal = null;
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            // A zero header means a crash before creation finished (nothing was stored yet)
+            boolean created = header.getInt(MAGIC_OFFSET) == 0 && header.getInt(CAPACITY_OFFSET) == 0;
+            if (!created) {
+                if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+                    throw new IOException("Not an asset repository file: " + file);
+                }
+                capacity = header.getInt(CAPACITY_OFFSET);
+            }
+            if (capacity <= 0 || HEADER_SIZE + (long) capacity * RECORD_SIZE > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Capacity must be positive and fit in a 2 GB mapping: " + capacity);
+            }
+            long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+            if (created) {
+                // Header durable before the file is grown: a crash leaves either a
+                // valid file or a zero header, never a sized file without magic
+                header.clear();
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(CAPACITY_OFFSET, capacity);
+                header.putInt(COUNT_OFFSET, 0);
+                channel.write(header, 0);
+                channel.force(true);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            this.capacity = capacity;
+            this.count = buffer.getInt(COUNT_OFFSET);
+            wal = new WriteAheadLog(file.resolveSibling(file.getFileName() + ".wal"), RECORD_SIZE);
+            this.wal = wal;
+            this.channel = channel;
+            recover();
+        } catch (IOException | RuntimeException e) {
+            if (wal != null) {
+                wal.close();
+            }
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<Asset> findById(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int slot = probe(key);
+            if (buffer.get(offset(slot)) == EMPTY) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(String id, Asset entity) {
+        byte[] record = encode(id, entity);
+        lock.writeLock().lock();
+        try {
+            int slot = slotForWrite(id);
+            wal.append(slot, record);
+            apply(slot, record);
+            wal.reset();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(Asset entity) {
+        save(entity.getSymbol(), entity);
+    }
+
+    /**
+     * Group commit: records are logged and applied in chunks of BATCH_SIZE, with
+     * one log force and one mapping force per chunk instead of per record. Each
+     * chunk is atomic; if a later chunk fails (e.g. the file is full), earlier
+     * chunks stay saved.
+     */
+    @Override
+    public void saveAll(Map<String, ? extends Asset> entities) {
+        List<String> ids = new ArrayList<>(BATCH_SIZE);
+        List<byte[]> records = new ArrayList<>(BATCH_SIZE);
+        for (Map.Entry<String, ? extends Asset> entry : entities.entrySet()) {
+            ids.add(entry.getKey());
+            records.add(encode(entry.getKey(), entry.getValue()));
+            if (ids.size() == BATCH_SIZE) {
+                commitBatch(ids, records);
+                ids.clear();
+                records.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            commitBatch(ids, records);
+        }
+    }
+
+    /**
+     * All lookups under one read lock acquisition.
+     */
+    @Override
+    public Map<String, Asset> findAllById(Collection<String> ids) {
+        Map<String, Asset> found = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String id : ids) {
+                int slot = probe(id.getBytes(StandardCharsets.UTF_8));
+                if (buffer.get(offset(slot)) != EMPTY) {
+                    found.put(id, decode(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    /**
+     * Streams the used slots in slot order. The spliterator splits the slot
+     * range in halves, so a parallel scan decodes disjoint regions of the
+     * mapping on different cores. Weakly consistent: records written during the
+     * scan may or may not be seen.
+     */
+    @Override
+    public Stream<Asset> scan() {
+        return StreamSupport.stream(new SlotSpliterator(0, capacity), false);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Test hook: simulates a crash after the log entry was made durable but
+     * before the mapped record was written.
+     */
+    void logWithoutApplying(String id, Asset entity) throws IOException {
+        lock.writeLock().lock();
+        try {
+            wal.append(slotForWrite(id), encode(id, entity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            wal.close();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void commitBatch(List<String> ids, List<byte[]> records) {
+        lock.writeLock().lock();
+        try {
+            // Slots are reserved before anything is written, so two new ids in the
+            // same batch can't probe into the same empty slot
+            Map<Integer, String> reserved = new HashMap<>();
+            int[] slots = new int[ids.size()];
+            int added = 0;
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = probe(ids.get(i), reserved);
+                if (buffer.get(offset(slots[i])) == EMPTY && reserved.put(slots[i], ids.get(i)) == null) {
+                    added++;
+                }
+            }
+            if (count + added > capacity * MAX_LOAD_FACTOR) {
+                throw new IllegalStateException("Repository is full (capacity " + capacity + ")");
+            }
+            wal.appendAll(slots, records);
+            for (int i = 0; i < slots.length; i++) {
+                write(slots[i], records.get(i));
+            }
+            buffer.force();
+            wal.reset();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        int replayed = wal.replay((record, slot) -> apply(slot, record));
+        if (replayed > 0) {
+            // The crash may have hit between a record write and the header update
+            count = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                if (buffer.get(offset(slot)) != EMPTY) {
+                    count++;
+                }
+            }
+            buffer.putInt(COUNT_OFFSET, count);
+            buffer.force();
+            wal.reset();
+        }
+    }
+
+    /**
+     * Writes a record into its slot and makes it durable. Idempotent, so log
+     * entries can be replayed any number of times.
+     *
+     * Together with the log append, a save costs two forces for an update
+     * and three for an insert (the header only changes on insert). The log
+     * truncation that follows is not forced: if it is lost in a crash, the
+     * entries are replayed, which is harmless since they were applied already.
+     * The next append's force makes the truncation durable.
+     */
+    private void apply(int slot, byte[] record) {
+        boolean inserted = write(slot, record);
+        buffer.force(offset(slot), RECORD_SIZE);
+        if (inserted) {
+            buffer.force(0, HEADER_SIZE);
+        }
+    }
+
+    /**
+     * @return true if the slot was empty, i.e. the header count changed
+     */
+    private boolean write(int slot, byte[] record) {
+        int offset = offset(slot);
+        boolean inserted = buffer.get(offset) == EMPTY;
+        if (inserted) {
+            count++;
+            buffer.putInt(COUNT_OFFSET, count);
+        }
+        buffer.put(offset, record);
+        return inserted;
+    }
+
+    private int slotForWrite(String id) {
+        int slot = probe(id.getBytes(StandardCharsets.UTF_8));
+        if (buffer.get(offset(slot)) == EMPTY && count + 1 > capacity * MAX_LOAD_FACTOR) {
+            throw new IllegalStateException("Repository is full (capacity " + capacity + ")");
+        }
+        return slot;
+    }
+
+    /**
+     * Linear probing: returns the slot holding the key, or the first empty slot
+     * where it would be inserted.
+     */
+    private int probe(byte[] key) {
+        int slot = (Arrays.hashCode(key) & 0x7fffffff) % capacity;
+        while (true) {
+            int offset = offset(slot);
+            if (buffer.get(offset) == EMPTY || keyMatches(offset, key)) {
+                return slot;
+            }
+            slot = (slot + 1) % capacity;
+        }
+    }
+
+    /**
+     * probe() that also treats slots reserved earlier in the same batch (but
+     * not yet written) as occupied.
+     */
+    private int probe(String id, Map<Integer, String> reserved) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int slot = (Arrays.hashCode(key) & 0x7fffffff) % capacity;
+        while (true) {
+            String owner = reserved.get(slot);
+            if (owner != null) {
+                if (owner.equals(id)) {
+                    return slot;
+                }
+            } else if (buffer.get(offset(slot)) == EMPTY || keyMatches(offset(slot), key)) {
+                return slot;
+            }
+            slot = (slot + 1) % capacity;
+        }
+    }
+
+    private boolean keyMatches(int offset, byte[] key) {
+        int keyOffset = offset + 2;
+        if (buffer.getShort(keyOffset) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(keyOffset + 2 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    /**
+     * Record: status, type, key, symbol, price, then type-specific fields.
+     * Strings are length-prefixed UTF-8, BigDecimals are (scale, unscaled bytes).
+     */
+    static byte[] encode(String id, Asset asset) {
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer out = ByteBuffer.wrap(record);
+        try {
+            out.put(USED);
+            if (asset instanceof RestrictedStock) {
+                out.put(TYPE_RESTRICTED_STOCK);
+            } else if (asset instanceof Stock) {
+                out.put(TYPE_STOCK);
+            } else {
+                out.put(TYPE_BOND);
+            }
+            putString(out, id);
+            putString(out, asset.getSymbol());
+            putDecimal(out, asset.getPrice());
+            if (asset instanceof Stock s) {
+                putString(out, s.getName());
+                putString(out, s.getSector());
+                if (s instanceof RestrictedStock r) {
+                    out.putInt(r.getLockupPeriodMonths());
+                }
+            } else if (asset instanceof Bond b) {
+                putDecimal(out, b.getInterestRate());
+            }
+        } catch (BufferOverflowException e) {
+            throw new IllegalArgumentException("Asset " + id + " does not fit in a " + RECORD_SIZE + " byte record");
+        }
+        return record;
+    }
+
+    private Asset decode(int slot) {
+        byte[] record = new byte[RECORD_SIZE];
+        buffer.get(offset(slot), record);
+        ByteBuffer in = ByteBuffer.wrap(record);
+        in.get(); // status
+        byte type = in.get();
+        getString(in); // key
+        String symbol = getString(in);
+        BigDecimal price = getDecimal(in);
+        if (type == TYPE_BOND) {
+            return new Bond(symbol, price, getDecimal(in));
+        }
+        String name = getString(in);
+        String sector = getString(in);
+        if (type == TYPE_RESTRICTED_STOCK) {
+            return new RestrictedStock(symbol, name, sector, price, in.getInt());
+        }
+        return new Stock(symbol, name, sector, price);
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new BufferOverflowException();
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putDecimal(ByteBuffer out, BigDecimal value) {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length > Byte.MAX_VALUE) {
+            throw new BufferOverflowException();
+        }
+        out.putInt(value.scale());
+        out.put((byte) unscaled.length);
+        out.put(unscaled);
+    }
+
+    static BigDecimal getDecimal(ByteBuffer in) {
+        int scale = in.getInt();
+        byte[] unscaled = new byte[in.get()];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    /**
+     * Walks the slot range [from, to), skipping empty slots. Splitting halves
+     * the range, which is cheap and balanced because hashing spreads records
+     * evenly over the slots.
+     */
+    private final class SlotSpliterator implements Spliterator<Asset> {
+        private int from;
+        private final int to;
+
+        SlotSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Asset> action) {
+            Asset next = null;
+            lock.readLock().lock();
+            try {
+                while (next == null && from < to) {
+                    if (buffer.get(offset(from)) != EMPTY) {
+                        next = decode(from);
+                    }
+                    from++;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (next == null) {
+                return false;
+            }
+            action.accept(next);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Asset> trySplit() {
+            if (to - from < MIN_SPLIT_SLOTS) {
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            Spliterator<Asset> prefix = new SlotSpliterator(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        /**
+         * Best-effort: count is read without the lock and may be stale while
+         * writes are in flight. That is why the spliterator does not report
+         * SIZED; the estimate only guides splitting.
+         */
+        @Override
+        public long estimateSize() {
+            // Assume the records are spread evenly over the slots
+            return (long) (to - from) * count / capacity;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
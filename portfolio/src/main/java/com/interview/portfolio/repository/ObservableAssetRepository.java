@@ -0,0 +1,155 @@
+package com.interview.portfolio.repository;
+
+import com.interview.event.EventListener;
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.AssetChangedEvent;
+import com.interview.portfolio.domain.FixedPoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Decorator: fires an AssetChangedEvent after every write to the delegate, so
+ * derived views can be maintained incrementally instead of rescanning.
+ *
+ * A write to an id and its event happen under that id's lock stripe. Events
+ * for one id are therefore dispatched in the order the writes were applied,
+ * and "previous" is exactly what the write replaced. Writes to different
+ * stripes proceed in parallel. Listeners run on the writing thread.
+ *
+ * Assets must have a fixed-point price (views aggregate in FixedPoint units);
+ * others are rejected before anything is written. Unlike EventDispatcher, a
+ * listener that throws does not stop the other listeners or the rest of a
+ * batch: every event is delivered, then the first failure is rethrown (the
+ * write itself has been applied).
+ */
+public class ObservableAssetRepository implements GenericRepository<Asset> {
+
+    private static final int STRIPES = 64;
+
+    private final GenericRepository<Asset> delegate;
+    private final List<EventListener<AssetChangedEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public ObservableAssetRepository(GenericRepository<Asset> delegate) {
+        this.delegate = delegate;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void addListener(EventListener<AssetChangedEvent> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(EventListener<AssetChangedEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public Optional<Asset> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public void save(String id, Asset entity) {
+        checkFixedPoint(entity);
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            Asset previous = delegate.findById(id).orElse(null);
+            delegate.save(id, entity);
+            dispatch(List.of(new AssetChangedEvent(id, previous, entity)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void add(Asset entity) {
+        checkFixedPoint(entity);
+        String id = entity.getSymbol();
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            Asset previous = delegate.findById(id).orElse(null);
+            delegate.add(entity);
+            dispatch(List.of(new AssetChangedEvent(id, previous, entity)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One bulk write to the delegate. The stripes it touches are locked in
+     * index order, so concurrent batches cannot deadlock.
+     */
+    @Override
+    public void saveAll(Map<String, ? extends Asset> entities) {
+        entities.values().forEach(ObservableAssetRepository::checkFixedPoint);
+        TreeSet<Integer> touched = new TreeSet<>();
+        entities.keySet().forEach(id -> touched.add(stripeIndex(id)));
+        touched.forEach(i -> stripes[i].lock());
+        try {
+            Map<String, Asset> previous = delegate.findAllById(entities.keySet());
+            delegate.saveAll(entities);
+            List<AssetChangedEvent> events = new ArrayList<>(entities.size());
+            entities.forEach((id, entity) -> events.add(new AssetChangedEvent(id, previous.get(id), entity)));
+            dispatch(events);
+        } finally {
+            touched.descendingSet().forEach(i -> stripes[i].unlock());
+        }
+    }
+
+    @Override
+    public Map<String, Asset> findAllById(Collection<String> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public Stream<Asset> scan() {
+        return delegate.scan();
+    }
+
+    private void dispatch(List<AssetChangedEvent> events) {
+        RuntimeException failure = null;
+        for (AssetChangedEvent event : events) {
+            for (EventListener<AssetChangedEvent> listener : listeners) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void checkFixedPoint(Asset entity) {
+        if (entity != null && !entity.hasFixedPointPrice()) {
+            throw new IllegalArgumentException("Price of " + entity.getSymbol()
+                    + " is not representable at scale " + FixedPoint.SCALE);
+        }
+    }
+
+    private ReentrantLock stripe(String id) {
+        return stripes[stripeIndex(id)];
+    }
+
+    private static int stripeIndex(String id) {
+        int h = id.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
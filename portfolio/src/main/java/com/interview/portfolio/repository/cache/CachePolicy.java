@@ -0,0 +1,27 @@
+package com.interview.portfolio.repository.cache;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a ReadThroughCache.
+ *
+ * @param maximumSize       maximum number of cached keys (segmented-LRU eviction)
+ * @param expireAfterWrite  entries older than this are reloaded (TTL)
+ * @param refreshAfterWrite entries older than this are served, but reloaded in
+ *                          the background (refresh-ahead); must be shorter than
+ *                          expireAfterWrite to have any effect
+ * @param negativeTtl       how long a "not found" result is cached
+ */
+public record CachePolicy(int maximumSize, Duration expireAfterWrite, Duration refreshAfterWrite,
+        Duration negativeTtl) {
+
+    public CachePolicy {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+    }
+
+    public static CachePolicy defaults() {
+        return new CachePolicy(10_000, Duration.ofMinutes(5), Duration.ofMinutes(4), Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,18 @@
+package com.interview.portfolio.repository.cache;
+
+/**
+ * Point-in-time snapshot of cache counters.
+ */
+public record CacheStats(long hitCount, long missCount, long loadCount, long loadFailureCount,
+        long totalLoadTimeNanos, long evictionCount) {
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public double averageLoadPenaltyNanos() {
+        long loads = loadCount + loadFailureCount;
+        return loads == 0 ? 0.0 : (double) totalLoadTimeNanos / loads;
+    }
+}
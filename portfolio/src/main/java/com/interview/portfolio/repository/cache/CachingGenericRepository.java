@@ -0,0 +1,85 @@
+package com.interview.portfolio.repository.cache;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.repository.GenericRepository;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Decorator: adds a ReadThroughCache in front of any GenericRepository.
+ * Reads go through the cache; writes go to the delegate and then update the
+ * cache (write-through), so callers never read their own writes stale.
+ * Each written key is invalidated before the delegate write, so a cached
+ * "not found" or an in-flight load of the old value cannot be served after it.
+ */
+public class CachingGenericRepository<T> implements GenericRepository<T> {
+
+    private final GenericRepository<T> delegate;
+    private final ReadThroughCache<String, T> cache;
+
+    public CachingGenericRepository(GenericRepository<T> delegate, CachePolicy policy) {
+        this.delegate = delegate;
+        this.cache = new ReadThroughCache<>(delegate::findById, policy);
+    }
+
+    public CachingGenericRepository(GenericRepository<T> delegate, ReadThroughCache<String, T> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return cache.get(id);
+    }
+
+    @Override
+    public void save(String id, T entity) {
+        invalidate(id, entity);
+        delegate.save(id, entity);
+        cache.put(id, entity);
+    }
+
+    @Override
+    public void add(T entity) {
+        // Only Assets have a known id (their symbol); anything else just isn't cached yet
+        String symbol = entity instanceof Asset asset ? asset.getSymbol() : null;
+        if (symbol != null) {
+            cache.invalidate(symbol);
+        }
+        delegate.add(entity);
+        if (symbol != null) {
+            cache.put(symbol, entity);
+        }
+    }
+
+    @Override
+    public void saveAll(Map<String, ? extends T> entities) {
+        entities.forEach(this::invalidate);
+        delegate.saveAll(entities);
+        entities.forEach(cache::put);
+    }
+
+    /**
+     * Scans go straight to the delegate: streaming everything through the cache
+     * would just evict the hot set.
+     */
+    @Override
+    public Stream<T> scan() {
+        return delegate.scan();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * The id, plus the asset's symbol when it differs (a delegate may index by either).
+     */
+    private void invalidate(String id, T entity) {
+        cache.invalidate(id);
+        if (entity instanceof Asset asset && !asset.getSymbol().equals(id)) {
+            cache.invalidate(asset.getSymbol());
+        }
+    }
+}
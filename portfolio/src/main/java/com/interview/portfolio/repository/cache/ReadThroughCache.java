@@ -0,0 +1,264 @@
+package com.interview.portfolio.repository.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache in front of a slow lookup (e.g. a repository's findById).
+ *
+ * - Single-flight: the map holds a CompletableFuture per key. The first caller
+ * installs it with putIfAbsent and runs the loader; concurrent callers for the
+ * same key wait on that future, so a stampede on one hot key makes one backend call.
+ * - Negative caching: "not found" (Optional.empty) is cached too, for negativeTtl.
+ * - TTL + refresh-ahead: entries expire after expireAfterWrite; after
+ * refreshAfterWrite they are still served but reloaded in the background.
+ * - Segmented LRU eviction: new keys enter a probation segment and move to a
+ * protected segment (80% of capacity) when hit again, so a scan of one-off keys
+ * cannot flush the hot set. The LRU bookkeeping is guarded by a lock; reads
+ * only tryLock it and skip the reordering when it is contended (lossy, like
+ * Caffeine's read buffers), so hits never block on eviction.
+ */
+public class ReadThroughCache<K, V> {
+
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private static final class Entry<V> {
+        final Optional<V> value;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(Optional<V> value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final Function<K, Optional<V>> loader;
+    private final CachePolicy policy;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoClock;
+    private final Map<K, CompletableFuture<Entry<V>>> entries = new ConcurrentHashMap<>();
+
+    // Segmented LRU bookkeeping (insertion order = LRU order), guarded by evictionLock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LinkedHashMap<K, Boolean> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Boolean> protectedSegment = new LinkedHashMap<>();
+    private final int protectedCapacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ReadThroughCache(Function<K, Optional<V>> loader, CachePolicy policy) {
+        this(loader, policy, ForkJoinPool.commonPool(), System::nanoTime);
+    }
+
+    public ReadThroughCache(Function<K, Optional<V>> loader, CachePolicy policy, Executor refreshExecutor,
+            LongSupplier nanoClock) {
+        this.loader = loader;
+        this.policy = policy;
+        this.refreshExecutor = refreshExecutor;
+        this.nanoClock = nanoClock;
+        this.protectedCapacity = (int) (policy.maximumSize() * PROTECTED_RATIO);
+    }
+
+    /**
+     * Returns the cached value, loading it (once, however many callers) on a
+     * miss. Loader exceptions propagate to every waiting caller and are not cached.
+     */
+    public Optional<V> get(K key) {
+        while (true) {
+            CompletableFuture<Entry<V>> future = entries.get(key);
+            if (future == null) {
+                CompletableFuture<Entry<V>> mine = new CompletableFuture<>();
+                future = entries.putIfAbsent(key, mine);
+                if (future == null) {
+                    misses.increment();
+                    return load(key, mine).value;
+                }
+            }
+
+            boolean wasLoaded = future.isDone();
+            Entry<V> entry = join(future);
+            long age = nanoClock.getAsLong() - entry.loadedAt;
+            if (age >= ttlOf(entry)) {
+                if (entries.remove(key, future)) {
+                    forget(key);
+                }
+                continue;
+            }
+
+            if (wasLoaded) {
+                hits.increment();
+            } else {
+                misses.increment(); // coalesced onto another caller's load
+            }
+            recordAccess(key);
+            if (entry.value.isPresent() && age >= policy.refreshAfterWrite().toNanos()) {
+                refreshAhead(key, future, entry);
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Write-through update: replaces the cached value without calling the loader.
+     */
+    public void put(K key, V value) {
+        entries.put(key, CompletableFuture.completedFuture(new Entry<>(Optional.of(value), nanoClock.getAsLong())));
+        recordWrite(key);
+    }
+
+    public void invalidate(K key) {
+        if (entries.remove(key) != null) {
+            forget(key);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), loadFailures.sum(), loadTime.sum(),
+                evictions.sum());
+    }
+
+    private Entry<V> load(K key, CompletableFuture<Entry<V>> future) {
+        long start = nanoClock.getAsLong();
+        Entry<V> entry;
+        try {
+            entry = new Entry<>(loader.apply(key), nanoClock.getAsLong());
+        } catch (Throwable e) {
+            // Errors too: a future left in entries would block every later caller forever
+            loadFailures.increment();
+            loadTime.add(nanoClock.getAsLong() - start);
+            // Don't cache failures: the next caller retries
+            entries.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        loads.increment();
+        loadTime.add(nanoClock.getAsLong() - start);
+        future.complete(entry);
+        recordWrite(key);
+        return entry;
+    }
+
+    private void refreshAhead(K key, CompletableFuture<Entry<V>> current, Entry<V> entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            long start = nanoClock.getAsLong();
+            try {
+                Entry<V> fresh = new Entry<>(loader.apply(key), nanoClock.getAsLong());
+                loads.increment();
+                entries.replace(key, current, CompletableFuture.completedFuture(fresh));
+            } catch (Throwable e) {
+                // Keep serving the current value until it expires
+                loadFailures.increment();
+                entry.refreshing.set(false);
+                if (e instanceof Error error) {
+                    throw error;
+                }
+            } finally {
+                loadTime.add(nanoClock.getAsLong() - start);
+            }
+        });
+    }
+
+    private long ttlOf(Entry<V> entry) {
+        return (entry.value.isPresent() ? policy.expireAfterWrite() : policy.negativeTtl()).toNanos();
+    }
+
+    private static <V> Entry<V> join(CompletableFuture<Entry<V>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void recordAccess(K key) {
+        // Lossy: if another thread holds the lock, skip the LRU reordering
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (probation.remove(key) != null) {
+                protectedSegment.put(key, Boolean.TRUE);
+                demoteOverflow();
+            } else if (protectedSegment.remove(key) != null) {
+                protectedSegment.put(key, Boolean.TRUE);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void recordWrite(K key) {
+        evictionLock.lock();
+        try {
+            if (!probation.containsKey(key) && !protectedSegment.containsKey(key)) {
+                probation.put(key, Boolean.TRUE);
+            }
+            while (probation.size() + protectedSegment.size() > policy.maximumSize()) {
+                LinkedHashMap<K, Boolean> victims = probation.isEmpty() ? protectedSegment : probation;
+                K victim = victims.keySet().iterator().next();
+                victims.remove(victim);
+                entries.remove(victim);
+                evictions.increment();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void demoteOverflow() {
+        while (protectedSegment.size() > protectedCapacity) {
+            K demoted = protectedSegment.keySet().iterator().next();
+            protectedSegment.remove(demoted);
+            probation.put(demoted, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Untracks a key its caller removed from entries, unless a concurrent load
+     * or put re-inserted it in between: that entry's recordWrite found the key
+     * still tracked and added nothing, so untracking it now would leave an
+     * entry the LRU can never evict.
+     */
+    private void forget(K key) {
+        evictionLock.lock();
+        try {
+            if (entries.containsKey(key)) {
+                return;
+            }
+            probation.remove(key);
+            protectedSegment.remove(key);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
@@ -2,14 +2,20 @@ package com.interview.portfolio.service;
 
 import com.interview.portfolio.domain.Asset;
 import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.repository.GenericRepository;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service to demonstrate Modern Async Programming (Java 8+ CompletableFuture).
@@ -17,20 +23,45 @@ import java.util.stream.Collectors;
  */
 public class AnalysisService {
 
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10;
+    public static final int DEFAULT_HORIZON_MONTHS = 12;
+
     private final ExecutorService executor = Executors.newFixedThreadPool(10);
+    private final GenericRepository<Asset> assetRepository;
+    private final PricePredictor predictor;
+
+    /**
+     * For the asset-level methods only: analyzePortfolio needs the repository
+     * constructor.
+     */
+    public AnalysisService() {
+        this(null);
+    }
+
+    /**
+     * @param assetRepository resolves a portfolio's symbols to Assets in analyzePortfolio
+     */
+    public AnalysisService(GenericRepository<Asset> assetRepository) {
+        this.assetRepository = assetRepository;
+        this.predictor = new SimulatedPricePredictor(executor);
+    }
+
+    /**
+     * @param predictor prediction backend, e.g. a CoalescingPricePredictor in
+     *                  front of the real one
+     */
+    public AnalysisService(GenericRepository<Asset> assetRepository, PricePredictor predictor) {
+        this.assetRepository = assetRepository;
+        this.predictor = predictor;
+    }
 
     /**
-     * Simulates a potentially slow remote API call to get market predictions.
-     * Demonstrates: supplyAsync (Running in background)
+     * Asks the (potentially slow, remote) predictor for a market prediction.
+     * Demonstrates: exceptionally (fallback instead of failing the pipeline)
      */
     public CompletableFuture<BigDecimal> predictFutureValue(Asset asset, int months) {
-        return CompletableFuture.supplyAsync(() -> {
-            simulateLatency();
-            // Mock logic: Price * (1 + (0.01 * months))
-            // Simulates a 1% growth per month
-            BigDecimal growthFactor = BigDecimal.valueOf(1 + (0.01 * months));
-            return asset.getPrice().multiply(growthFactor).setScale(2, RoundingMode.HALF_UP);
-        }, executor).exceptionally(ex -> {
+        return predictor.predict(asset, months).exceptionally(ex -> {
             // Demonstrate error handling
             System.err.println("Failed to predict for " + asset.getSymbol() + ": " + ex.getMessage());
             return BigDecimal.ZERO; // Fallback
@@ -38,22 +69,51 @@ public class AnalysisService {
     }
 
     /**
-     * Analyzes the entire portfolio in parallel.
-     * Demonstrates: fan-out (creating many futures) and fan-in (allOf / join).
+     * Batched variant of predictFutureValue: one predictor call for the whole
+     * batch. A failed call falls back to ZERO for every asset in it.
+     */
+    public CompletableFuture<Map<String, BigDecimal>> predictFutureValues(List<? extends Asset> batch, int months) {
+        return predictor.predictAll(batch, months).exceptionally(ex -> {
+            System.err.println("Failed to predict batch of " + batch.size() + ": " + ex.getMessage());
+            Map<String, BigDecimal> fallback = new HashMap<>();
+            batch.forEach(asset -> fallback.put(asset.getSymbol(), BigDecimal.ZERO));
+            return fallback;
+        });
+    }
+
+    /**
+     * Analyzes the entire portfolio over DEFAULT_HORIZON_MONTHS.
      */
     public CompletableFuture<Map<String, BigDecimal>> analyzePortfolio(Portfolio portfolio) {
-        // 1. Convert Map entries to a List of Asset objects (mocking retrieving them
-        // from repo/holdings)
-        // In this simple model, we assume we just analyze the symbols we have.
-        // For demonstration, we just parse key strings for now or need a way to get
-        // Assets.
-        // LIMITATION: Portfolio only stores Map<String, Integer> (holdings). We need
-        // Assets.
-        // Assuming we pass in a list of Assets for analysis, or we modify signature.
-        throw new UnsupportedOperationException("Needs list of Assets, but Portfolio only holds symbols");
+        return analyzePortfolio(portfolio, DEFAULT_HORIZON_MONTHS);
     }
 
-    // Fixed signature to accept list of Assets
+    /**
+     * Resolves all holdings with one bulk findAllById, then streams them through
+     * analyzeAssetsStreaming.
+     *
+     * @throws IllegalStateException if no asset repository was configured, or
+     *                               a held symbol is not in the repository
+     */
+    public CompletableFuture<Map<String, BigDecimal>> analyzePortfolio(Portfolio portfolio, int months) {
+        if (assetRepository == null) {
+            throw new IllegalStateException("No asset repository configured to resolve the portfolio's symbols");
+        }
+        Set<String> symbols = portfolio.snapshot().keySet();
+        Map<String, Asset> assets = assetRepository.findAllById(symbols);
+        for (String symbol : symbols) {
+            if (!assets.containsKey(symbol)) {
+                throw new IllegalStateException("Asset not found for symbol: " + symbol);
+            }
+        }
+        return analyzeAssetsStreaming(assets.values().stream(), months);
+    }
+
+    /**
+     * Simple fan-out: one future per asset. Fine for a handful of assets; for
+     * large universes use analyzeAssetsStreaming.
+     * Demonstrates: fan-out (creating many futures) and fan-in (allOf / join).
+     */
     public CompletableFuture<Map<String, BigDecimal>> analyzeAssets(List<Asset> assets, int months) {
         List<CompletableFuture<Map.Entry<String, BigDecimal>>> futures = assets.stream()
                 .map(asset -> predictFutureValue(asset, months)
@@ -66,12 +126,105 @@ public class AnalysisService {
                         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
     }
 
-    private void simulateLatency() {
+    public CompletableFuture<Map<String, BigDecimal>> analyzeAssetsStreaming(Stream<? extends Asset> assets, int months) {
+        return analyzeAssetsStreaming(assets, months, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Bounded fan-out for large inputs:
+     * - Assets are pulled from the stream lazily, batchSize at a time, and each
+     * batch is one predictFutureValues call -> assets / batchSize futures in
+     * total instead of one per asset.
+     * - maxInFlight "lanes" each run one batch at a time and pull the next batch
+     * when theirs completes, so at most maxInFlight calls are outstanding and
+     * the stream is never materialized.
+     * - Results go straight into a map pre-sized from the stream's size (when
+     * known); there is no list of futures and no giant toArray for allOf.
+     */
+    public CompletableFuture<Map<String, BigDecimal>> analyzeAssetsStreaming(Stream<? extends Asset> assets, int months,
+            int batchSize, int maxInFlight) {
+        if (batchSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("Batch size and max in-flight must be positive");
+        }
+        Spliterator<? extends Asset> source = assets.spliterator();
+        long expectedSize = source.getExactSizeIfKnown();
+        Map<String, BigDecimal> results = new ConcurrentHashMap<>(
+                expectedSize < 0 ? 16 : (int) Math.min(expectedSize, Integer.MAX_VALUE));
+        BatchCursor cursor = new BatchCursor(source, batchSize);
+
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[maxInFlight];
+        for (int i = 0; i < maxInFlight; i++) {
+            CompletableFuture<Void> lane = new CompletableFuture<>();
+            runLane(cursor, months, results, lane);
+            lanes[i] = lane;
+        }
+        return CompletableFuture.allOf(lanes).thenApply(v -> results);
+    }
+
+    /**
+     * Runs batches one after another until the cursor is exhausted, then
+     * completes the lane; the lane never holds more than one call in flight.
+     *
+     * Batches whose future is already done (e.g. cache hits) are handled in
+     * this loop rather than by recursion, so a synchronous predictor can't
+     * overflow the stack. Only a still-pending call resumes the lane from its
+     * completion callback. Any failure, including one thrown while merging a
+     * batch's results, completes the lane exceptionally, so the overall result
+     * can't hang.
+     */
+    private void runLane(BatchCursor cursor, int months, Map<String, BigDecimal> results, CompletableFuture<Void> lane) {
         try {
-            // 50-200ms sleep
-            Thread.sleep((long) (Math.random() * 150 + 50));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            while (true) {
+                List<Asset> batch = cursor.next();
+                if (batch.isEmpty()) {
+                    lane.complete(null);
+                    return;
+                }
+                CompletableFuture<Map<String, BigDecimal>> call = predictFutureValues(batch, months);
+                if (!call.isDone()) {
+                    call.whenComplete((predictions, failure) -> {
+                        if (failure != null) {
+                            lane.completeExceptionally(failure);
+                            return;
+                        }
+                        try {
+                            results.putAll(predictions);
+                        } catch (Throwable e) {
+                            lane.completeExceptionally(e);
+                            return;
+                        }
+                        runLane(cursor, months, results, lane);
+                    });
+                    return;
+                }
+                results.putAll(call.join());
+            }
+        } catch (Throwable e) {
+            lane.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Hands out consecutive batches of a Spliterator to concurrent lanes.
+     */
+    private static final class BatchCursor {
+        private final Spliterator<? extends Asset> source;
+        private final int batchSize;
+
+        BatchCursor(Spliterator<? extends Asset> source, int batchSize) {
+            this.source = source;
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * @return the next batch, empty once the source is exhausted
+         */
+        synchronized List<Asset> next() {
+            List<Asset> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && source.tryAdvance(batch::add)) {
+                // keep pulling
+            }
+            return batch;
         }
     }
 
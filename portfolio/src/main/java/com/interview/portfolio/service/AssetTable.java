@@ -0,0 +1,295 @@
+package com.interview.portfolio.service;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.FixedPoint;
+import com.interview.portfolio.domain.RestrictedStock;
+import com.interview.portfolio.domain.Stock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar (Struct-of-Arrays) snapshot of an asset universe for analytics scans.
+ *
+ * Instead of a List of Asset objects (pointer chasing + BigDecimal per row),
+ * each attribute lives in its own primitive array:
+ * - symbol: dictionary-encoded int column
+ * - sector: dictionary-encoded int column (NO_SECTOR for Bonds)
+ * - price: long column in FixedPoint units
+ * - type: byte column
+ *
+ * Queries mirror StreamAnalytics but run as tight loops over these arrays,
+ * optionally split into chunks processed in parallel. Rows are returned as
+ * int row ids; use symbolAt/sectorAt/priceUnitsAt to decode them.
+ * The table is immutable once built, so it can be scanned from any thread.
+ */
+public final class AssetTable {
+
+    public static final byte TYPE_STOCK = 0;
+    public static final byte TYPE_RESTRICTED_STOCK = 1;
+    public static final byte TYPE_BOND = 2;
+
+    public static final int NO_SECTOR = -1;
+
+    // Same threshold as StreamAnalytics.partitionByValuation
+    private static final long VALUATION_THRESHOLD_UNITS = 1000 * FixedPoint.ONE;
+    // Rows per chunk for parallel scans
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final int size;
+    private final int[] symbolIds;
+    private final int[] sectorIds;
+    private final long[] priceUnits;
+    private final byte[] types;
+    private final String[] symbolDictionary;
+    private final String[] sectorDictionary;
+
+    private AssetTable(int size, int[] symbolIds, int[] sectorIds, long[] priceUnits, byte[] types,
+            String[] symbolDictionary, String[] sectorDictionary) {
+        this.size = size;
+        this.symbolIds = symbolIds;
+        this.sectorIds = sectorIds;
+        this.priceUnits = priceUnits;
+        this.types = types;
+        this.symbolDictionary = symbolDictionary;
+        this.sectorDictionary = sectorDictionary;
+    }
+
+    /**
+     * Builds the columns in one pass over the assets.
+     *
+     * @throws ArithmeticException if a price has no fixed-point representation
+     */
+    public static AssetTable of(List<? extends Asset> assets) {
+        int size = assets.size();
+        int[] symbolIds = new int[size];
+        int[] sectorIds = new int[size];
+        long[] priceUnits = new long[size];
+        byte[] types = new byte[size];
+        Dictionary symbols = new Dictionary();
+        Dictionary sectors = new Dictionary();
+
+        for (int row = 0; row < size; row++) {
+            Asset asset = assets.get(row);
+            symbolIds[row] = symbols.encode(asset.getSymbol());
+            priceUnits[row] = asset.getPriceUnits();
+            if (asset instanceof Stock s) {
+                sectorIds[row] = sectors.encode(s.getSector());
+                types[row] = s instanceof RestrictedStock ? TYPE_RESTRICTED_STOCK : TYPE_STOCK;
+            } else if (asset instanceof Bond) {
+                sectorIds[row] = NO_SECTOR;
+                types[row] = TYPE_BOND;
+            }
+        }
+        return new AssetTable(size, symbolIds, sectorIds, priceUnits, types,
+                symbols.values(), sectors.values());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String symbolAt(int row) {
+        return symbolDictionary[symbolIds[row]];
+    }
+
+    /**
+     * @return the sector of a Stock row, or null for Bonds
+     */
+    public String sectorAt(int row) {
+        int sectorId = sectorIds[row];
+        return sectorId == NO_SECTOR ? null : sectorDictionary[sectorId];
+    }
+
+    /**
+     * @return the dictionary id of a Stock row's sector, or NO_SECTOR for Bonds
+     */
+    public int sectorIdAt(int row) {
+        return sectorIds[row];
+    }
+
+    /**
+     * Number of distinct sectors; sector ids run from 0 to sectorCount() - 1.
+     */
+    public int sectorCount() {
+        return sectorDictionary.length;
+    }
+
+    public String sectorName(int sectorId) {
+        return sectorDictionary[sectorId];
+    }
+
+    public long priceUnitsAt(int row) {
+        return priceUnits[row];
+    }
+
+    public byte typeAt(int row) {
+        return types[row];
+    }
+
+    /**
+     * Equivalent of StreamAnalytics.getHighValueSymbols.
+     */
+    public List<String> getHighValueSymbols(long priceThresholdUnits, boolean parallel) {
+        List<String> result;
+        if (parallel) {
+            result = new ArrayList<>();
+            parallelChunks()
+                    .mapToObj(chunk -> highValueSymbols(chunk * CHUNK_SIZE, chunkEnd(chunk), priceThresholdUnits))
+                    .forEachOrdered(result::addAll);
+        } else {
+            result = highValueSymbols(0, size, priceThresholdUnits);
+        }
+        result.sort(null);
+        return result;
+    }
+
+    private List<String> highValueSymbols(int from, int to, long priceThresholdUnits) {
+        List<String> symbols = new ArrayList<>();
+        for (int row = from; row < to; row++) {
+            if (priceUnits[row] > priceThresholdUnits) {
+                symbols.add(symbolDictionary[symbolIds[row]]);
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * Equivalent of StreamAnalytics.groupStocksBySector: sector -> row ids.
+     */
+    public Map<String, int[]> groupStocksBySector() {
+        long[] counts = sectorCounts(false);
+        int[][] buckets = new int[sectorDictionary.length][];
+        int[] fill = new int[sectorDictionary.length];
+        for (int sector = 0; sector < buckets.length; sector++) {
+            buckets[sector] = new int[(int) counts[sector]];
+        }
+        for (int row = 0; row < size; row++) {
+            int sector = sectorIds[row];
+            if (sector != NO_SECTOR) {
+                buckets[sector][fill[sector]++] = row;
+            }
+        }
+        Map<String, int[]> result = new LinkedHashMap<>();
+        for (int sector = 0; sector < buckets.length; sector++) {
+            result.put(sectorDictionary[sector], buckets[sector]);
+        }
+        return result;
+    }
+
+    /**
+     * Equivalent of StreamAnalytics.countStocksBySector.
+     */
+    public Map<String, Long> countStocksBySector(boolean parallel) {
+        long[] counts = sectorCounts(parallel);
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int sector = 0; sector < counts.length; sector++) {
+            result.put(sectorDictionary[sector], counts[sector]);
+        }
+        return result;
+    }
+
+    private long[] sectorCounts(boolean parallel) {
+        if (!parallel) {
+            return sectorCounts(0, size);
+        }
+        return parallelChunks()
+                .mapToObj(chunk -> sectorCounts(chunk * CHUNK_SIZE, chunkEnd(chunk)))
+                .reduce(new long[sectorDictionary.length], AssetTable::sum);
+    }
+
+    private long[] sectorCounts(int from, int to) {
+        long[] counts = new long[sectorDictionary.length];
+        for (int row = from; row < to; row++) {
+            int sector = sectorIds[row];
+            if (sector != NO_SECTOR) {
+                counts[sector]++;
+            }
+        }
+        return counts;
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, a.length);
+        for (int i = 0; i < b.length; i++) {
+            result[i] += b[i];
+        }
+        return result;
+    }
+
+    /**
+     * Equivalent of StreamAnalytics.partitionByValuation (price > 1000):
+     * true -> expensive row ids, false -> cheap row ids.
+     */
+    public Map<Boolean, int[]> partitionByValuation() {
+        int[] expensive = new int[size];
+        int[] cheap = new int[size];
+        int expensiveCount = 0;
+        int cheapCount = 0;
+        for (int row = 0; row < size; row++) {
+            if (priceUnits[row] > VALUATION_THRESHOLD_UNITS) {
+                expensive[expensiveCount++] = row;
+            } else {
+                cheap[cheapCount++] = row;
+            }
+        }
+        Map<Boolean, int[]> result = new HashMap<>();
+        result.put(true, Arrays.copyOf(expensive, expensiveCount));
+        result.put(false, Arrays.copyOf(cheap, cheapCount));
+        return result;
+    }
+
+    /**
+     * Equivalent of StreamAnalytics.getPriceStatistics.
+     */
+    public DoubleSummaryStatistics getPriceStatistics(boolean parallel) {
+        if (!parallel) {
+            return priceStatistics(0, size);
+        }
+        return parallelChunks()
+                .mapToObj(chunk -> priceStatistics(chunk * CHUNK_SIZE, chunkEnd(chunk)))
+                .collect(DoubleSummaryStatistics::new, DoubleSummaryStatistics::combine,
+                        DoubleSummaryStatistics::combine);
+    }
+
+    private DoubleSummaryStatistics priceStatistics(int from, int to) {
+        DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+        for (int row = from; row < to; row++) {
+            stats.accept(FixedPoint.toDouble(priceUnits[row]));
+        }
+        return stats;
+    }
+
+    private int chunkEnd(int chunk) {
+        return Math.min(size, (chunk + 1) * CHUNK_SIZE);
+    }
+
+    private IntStream parallelChunks() {
+        return IntStream.range(0, (size + CHUNK_SIZE - 1) / CHUNK_SIZE).parallel();
+    }
+
+    /**
+     * Assigns consecutive int ids to distinct strings (dictionary encoding).
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        String[] values() {
+            return values.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.interview.portfolio.service;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.FixedPoint;
+import com.interview.portfolio.domain.HoldingsSnapshot;
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.repository.GenericRepository;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Values many portfolios at once (e.g. end-of-day revaluation).
+ *
+ * Calling PortfolioService.calculateTotalValue per portfolio repeats
+ * findById for popular symbols over and over. Here:
+ * 1. The distinct symbol set of the whole batch is resolved once into a price
+ * vector (symbol -> index -> price).
+ * 2. Portfolios are valued in parallel with a Fork/Join RecursiveAction that
+ * splits the batch in halves down to LEAF_SIZE portfolios per task.
+ * 3. A missing asset is reported on that portfolio's result instead of aborting
+ * the whole batch with IllegalStateException.
+ */
+public class BatchValuationService implements AutoCloseable {
+
+    private static final int LEAF_SIZE = 1_024;
+
+    /**
+     * Valuation of one portfolio. totalValue covers the resolved holdings only;
+     * any symbol not found in the repository is listed in missingSymbols.
+     */
+    public record ValuationResult(Portfolio portfolio, BigDecimal totalValue, Set<String> missingSymbols) {
+        public boolean isComplete() {
+            return missingSymbols.isEmpty();
+        }
+    }
+
+    /**
+     * Prices of the batch's distinct symbols; a null entry means "not found".
+     */
+    private record PriceVector(Map<String, Integer> index, Asset[] assets) {
+        Asset get(String symbol) {
+            Integer i = index.get(symbol);
+            return i == null ? null : assets[i];
+        }
+    }
+
+    private final GenericRepository<Asset> assetRepository;
+    private final ForkJoinPool pool;
+
+    public BatchValuationService(GenericRepository<Asset> assetRepository) {
+        this(assetRepository, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchValuationService(GenericRepository<Asset> assetRepository, int parallelism) {
+        this.assetRepository = assetRepository;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * @return one result per portfolio, in the order of the input list
+     */
+    public List<ValuationResult> valueAll(List<Portfolio> portfolios) {
+        // One snapshot per portfolio for both passes, so a holding added in
+        // between can't show up as unpriced
+        HoldingsSnapshot[] snapshots = new HoldingsSnapshot[portfolios.size()];
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = portfolios.get(i).snapshot();
+        }
+        PriceVector prices = resolvePrices(snapshots);
+        ValuationResult[] results = new ValuationResult[portfolios.size()];
+        pool.invoke(new ValuationTask(portfolios, snapshots, prices, results, 0, portfolios.size()));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * One findById per distinct symbol across the whole batch.
+     */
+    private PriceVector resolvePrices(HoldingsSnapshot[] snapshots) {
+        Map<String, Integer> index = new HashMap<>();
+        for (HoldingsSnapshot holdings : snapshots) {
+            for (String symbol : holdings.keySet()) {
+                index.putIfAbsent(symbol, index.size());
+            }
+        }
+        Asset[] assets = new Asset[index.size()];
+        index.forEach((symbol, i) -> assets[i] = assetRepository.findById(symbol).orElse(null));
+        return new PriceVector(index, assets);
+    }
+
+    private static ValuationResult value(Portfolio portfolio, HoldingsSnapshot holdings, PriceVector prices) {
+        Set<String> missing = new LinkedHashSet<>();
+        try {
+            // Fast path: fixed-point arithmetic, no allocation per holding
+            long total = 0;
+            for (Map.Entry<String, Integer> entry : holdings.entrySet()) {
+                Asset asset = prices.get(entry.getKey());
+                if (asset == null) {
+                    missing.add(entry.getKey());
+                } else {
+                    total = FixedPoint.add(total, FixedPoint.multiply(asset.getPriceUnits(), entry.getValue()));
+                }
+            }
+            return new ValuationResult(portfolio, FixedPoint.toBigDecimal(total), Set.copyOf(missing));
+        } catch (ArithmeticException e) {
+            // Price without fixed-point form, or overflow: redo this portfolio exactly
+            missing.clear();
+            BigDecimal total = BigDecimal.ZERO;
+            for (Map.Entry<String, Integer> entry : holdings.entrySet()) {
+                Asset asset = prices.get(entry.getKey());
+                if (asset == null) {
+                    missing.add(entry.getKey());
+                } else {
+                    total = total.add(asset.getPrice().multiply(BigDecimal.valueOf(entry.getValue())));
+                }
+            }
+            return new ValuationResult(portfolio, total, Set.copyOf(missing));
+        }
+    }
+
+    /**
+     * Divide and Conquer: split [from, to) in halves until it is small enough
+     * to value sequentially.
+     */
+    private static final class ValuationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Portfolio> portfolios;
+        private final HoldingsSnapshot[] snapshots;
+        private final PriceVector prices;
+        private final ValuationResult[] results;
+        private final int from;
+        private final int to;
+
+        ValuationTask(List<Portfolio> portfolios, HoldingsSnapshot[] snapshots, PriceVector prices,
+                      ValuationResult[] results, int from, int to) {
+            this.portfolios = portfolios;
+            this.snapshots = snapshots;
+            this.prices = prices;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = value(portfolios.get(i), snapshots[i], prices);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ValuationTask(portfolios, snapshots, prices, results, from, mid),
+                    new ValuationTask(portfolios, snapshots, prices, results, mid, to));
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
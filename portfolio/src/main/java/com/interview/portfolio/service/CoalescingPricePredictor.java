@@ -0,0 +1,254 @@
+package com.interview.portfolio.service;
+
+import com.interview.portfolio.domain.Asset;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorator that puts three layers in front of a PricePredictor:
+ *
+ * 1. TTL cache: a (symbol, price, months) answered within the last ttl is
+ * served from memory.
+ * 2. Coalescing: identical requests already in flight share one future
+ * instead of issuing another call.
+ * 3. Micro-batching: distinct requests for the same horizon arriving within
+ * batchWindow are sent as one predictAll call (flushed early at maxBatchSize).
+ *
+ * The price is part of the key, so a price move is never answered with a
+ * prediction made for the old price. Failed calls are not cached.
+ */
+public class CoalescingPricePredictor implements PricePredictor, AutoCloseable {
+
+    private record Key(String symbol, BigDecimal price, int months) {
+    }
+
+    private record Cached(BigDecimal value, long expiresAt) {
+    }
+
+    private record Pending(Asset asset, Key key, CompletableFuture<BigDecimal> future) {
+    }
+
+    /**
+     * Requests collected for one horizon. A symbol appears at most once, since
+     * predictAll answers by symbol.
+     */
+    private static final class Batch {
+        final List<Pending> requests = new ArrayList<>();
+        final Set<String> symbols = new HashSet<>();
+    }
+
+    private final PricePredictor backend;
+    private final long batchWindowNanos;
+    private final int maxBatchSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "predictor-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<Key, Cached> cache = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<BigDecimal>> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock batchLock = new ReentrantLock();
+    private final Map<Integer, Batch> openBatches = new HashMap<>(); // months -> batch, guarded by batchLock
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder backendCalls = new LongAdder();
+    private final LongAdder backendRequests = new LongAdder();
+    private volatile boolean closed;
+
+    public CoalescingPricePredictor(PricePredictor backend, Duration batchWindow, int maxBatchSize, Duration ttl) {
+        this(backend, batchWindow, maxBatchSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock time source for TTL expiry (injectable for tests)
+     */
+    public CoalescingPricePredictor(PricePredictor backend, Duration batchWindow, int maxBatchSize, Duration ttl,
+            LongSupplier nanoClock) {
+        if (batchWindow.isNegative() || maxBatchSize <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Batch window must be >= 0, batch size and TTL positive");
+        }
+        this.backend = backend;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        // Expired entries are also dropped on read; this only bounds memory
+        scheduler.scheduleAtFixedRate(this::purgeExpired, ttlNanos, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> predict(Asset asset, int months) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Predictor is closed"));
+        }
+        requests.increment();
+        Key key = new Key(asset.getSymbol(), asset.getPrice(), months);
+        BigDecimal cached = cached(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<BigDecimal> mine = new CompletableFuture<>();
+        CompletableFuture<BigDecimal> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        // A call for this key may have completed between the cache check and putIfAbsent
+        cached = cached(key);
+        if (cached != null) {
+            inFlight.remove(key, mine);
+            cacheHits.increment();
+            mine.complete(cached);
+            return mine.copy();
+        }
+        enqueue(new Pending(asset, key, mine));
+        // Callers get a copy, so none of them can complete the shared future
+        return mine.copy();
+    }
+
+    public PredictorStats stats() {
+        return new PredictorStats(requests.sum(), cacheHits.sum(), coalesced.sum(), backendCalls.sum(),
+                backendRequests.sum());
+    }
+
+    /**
+     * Stops the batching thread. Batches already collected are still flushed
+     * when their window ends; later predict calls fail with IllegalStateException.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdown();
+    }
+
+    private BigDecimal cached(Key key) {
+        Cached entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+            cache.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private void enqueue(Pending pending) {
+        int months = pending.key().months();
+        List<Batch> toSend = new ArrayList<>(2);
+        boolean rejected = false;
+        batchLock.lock();
+        try {
+            Batch batch = openBatches.get(months);
+            if (batch != null && batch.symbols.contains(pending.asset().getSymbol())) {
+                // Same symbol at another price: it can't share a predictAll call
+                openBatches.remove(months);
+                toSend.add(batch);
+                batch = null;
+            }
+            if (batch == null) {
+                Batch opened = new Batch();
+                try {
+                    scheduler.schedule(() -> flush(months, opened), batchWindowNanos, TimeUnit.NANOSECONDS);
+                    openBatches.put(months, opened);
+                    batch = opened;
+                } catch (RejectedExecutionException e) {
+                    // Closed concurrently with this predict: no window will ever flush a new batch
+                    rejected = true;
+                }
+            }
+            if (!rejected) {
+                batch.requests.add(pending);
+                batch.symbols.add(pending.asset().getSymbol());
+                if (batch.requests.size() >= maxBatchSize) {
+                    openBatches.remove(months);
+                    toSend.add(batch);
+                }
+            }
+        } finally {
+            batchLock.unlock();
+        }
+        toSend.forEach(batch -> send(months, batch));
+        if (rejected) {
+            // Leave flight first, so later callers don't coalesce onto a dead future
+            inFlight.remove(pending.key(), pending.future());
+            pending.future().completeExceptionally(new IllegalStateException("Predictor is closed"));
+        }
+    }
+
+    /**
+     * End of a batch window: sends the batch unless it was already sent because it filled up.
+     */
+    private void flush(int months, Batch batch) {
+        batchLock.lock();
+        try {
+            if (openBatches.get(months) != batch) {
+                return;
+            }
+            openBatches.remove(months);
+        } finally {
+            batchLock.unlock();
+        }
+        send(months, batch);
+    }
+
+    private void send(int months, Batch batch) {
+        backendCalls.increment();
+        backendRequests.add(batch.requests.size());
+        List<Asset> assets = batch.requests.stream().map(Pending::asset).toList();
+        CompletableFuture<Map<String, BigDecimal>> call;
+        try {
+            call = backend.predictAll(assets, months);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((predictions, error) -> {
+            long expiresAt = nanoClock.getAsLong() + ttlNanos;
+            for (Pending pending : batch.requests) {
+                BigDecimal value = error == null ? predictions.get(pending.asset().getSymbol()) : null;
+                if (value != null) {
+                    // Cache before leaving flight, so no window exists where neither has the key
+                    cache.put(pending.key(), new Cached(value, expiresAt));
+                }
+                inFlight.remove(pending.key(), pending.future());
+                if (value != null) {
+                    pending.future().complete(value);
+                } else if (error != null) {
+                    pending.future().completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else {
+                    pending.future().completeExceptionally(
+                            new IllegalStateException("No prediction returned for " + pending.asset().getSymbol()));
+                }
+            }
+        });
+    }
+
+    private void purgeExpired() {
+        long now = nanoClock.getAsLong();
+        cache.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+    }
+}
@@ -0,0 +1,247 @@
+package com.interview.portfolio.service;
+
+import com.interview.event.EventBus;
+import com.interview.event.EventListener;
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.FixedPoint;
+import com.interview.portfolio.domain.HoldingChangedEvent;
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.domain.PriceUpdatedEvent;
+import com.interview.portfolio.repository.GenericRepository;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains a running total value per portfolio instead of re-walking the
+ * holdings on every read (compare PortfolioService.calculateTotalValue).
+ *
+ * - Holding change (addAsset/removeAsset): total += delta * price -> O(1).
+ * - Price change: total += quantity * (newPrice - oldPrice) for every portfolio
+ * holding the symbol -> O(holders of that symbol), independent of portfolio size.
+ * - Read: one AtomicLong read -> O(1).
+ *
+ * Totals are kept in FixedPoint units, so all prices must have a fixed-point
+ * representation. Holding and price changes for the same symbol are serialized
+ * on that symbol's state, so they cannot interleave and drift the totals.
+ *
+ * The holding listener never throws: the trade is already published when it
+ * runs. A change it cannot apply (a symbol the repository does not know, a
+ * price without a fixed-point form, an overflow) marks the portfolio stale
+ * instead, and the next read recomputes its total from the holdings.
+ */
+public class IncrementalValuationEngine {
+
+    /**
+     * Current price of one symbol and who holds how much of it.
+     */
+    private static final class SymbolState {
+        volatile long priceUnits;
+        final Map<Portfolio, Long> holders = new ConcurrentHashMap<>();
+
+        SymbolState(long priceUnits) {
+            this.priceUnits = priceUnits;
+        }
+    }
+
+    private final GenericRepository<Asset> assetRepository;
+    private final Map<String, SymbolState> symbols = new ConcurrentHashMap<>();
+    private final Map<Portfolio, AtomicLong> totals = new ConcurrentHashMap<>();
+    // Portfolios whose running total missed a change and must be recomputed
+    private final Set<Portfolio> stale = ConcurrentHashMap.newKeySet();
+    private final EventListener<HoldingChangedEvent> holdingListener = this::onHoldingChanged;
+
+    /**
+     * @param assetRepository source of the initial price of a symbol the first
+     *                        time it is seen
+     */
+    public IncrementalValuationEngine(GenericRepository<Asset> assetRepository) {
+        this.assetRepository = assetRepository;
+    }
+
+    /**
+     * Starts maintaining the total of a portfolio. Its current holdings are
+     * valued once, then every addAsset/removeAsset is applied incrementally.
+     * Track a portfolio before it is traded on concurrently: changes made while
+     * track() runs may be missed.
+     */
+    public void track(Portfolio portfolio) {
+        if (totals.putIfAbsent(portfolio, new AtomicLong()) != null) {
+            return;
+        }
+        portfolio.getHoldings().forEach((symbol, quantity) -> onHoldingChanged(portfolio, symbol, quantity));
+        portfolio.addHoldingListener(holdingListener);
+    }
+
+    public void untrack(Portfolio portfolio) {
+        portfolio.removeHoldingListener(holdingListener);
+        stale.remove(portfolio);
+        if (totals.remove(portfolio) != null) {
+            portfolio.getHoldings().keySet().forEach(symbol -> {
+                SymbolState state = symbols.get(symbol);
+                if (state != null) {
+                    synchronized (state) {
+                        state.holders.remove(portfolio);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * O(1) read of the maintained total, or O(holdings) if the portfolio is
+     * stale and has to be recomputed first.
+     *
+     * @throws IllegalArgumentException if the portfolio is not tracked
+     * @throws IllegalStateException    if a held symbol still cannot be priced
+     */
+    public BigDecimal getTotalValue(Portfolio portfolio) {
+        AtomicLong total = totalOf(portfolio);
+        if (stale.contains(portfolio)) {
+            resync(portfolio, total);
+        }
+        return FixedPoint.toBigDecimal(total.get());
+    }
+
+    /**
+     * True if a holding or price change could not be applied and the total
+     * will be recomputed on the next read.
+     */
+    public boolean isStale(Portfolio portfolio) {
+        return stale.contains(portfolio);
+    }
+
+    /**
+     * Subscribes to PriceUpdatedEvents on the given bus.
+     */
+    public void subscribeTo(EventBus eventBus) {
+        eventBus.register(PriceUpdatedEvent.class, event -> onPriceUpdate(event.symbol(), event.price()));
+    }
+
+    /**
+     * Applies a new market price to every tracked portfolio holding the symbol.
+     */
+    public void onPriceUpdate(String symbol, BigDecimal price) {
+        long newUnits = FixedPoint.toUnits(price);
+        SymbolState state = symbols.computeIfAbsent(symbol, s -> new SymbolState(newUnits));
+        synchronized (state) {
+            long diff = newUnits - state.priceUnits;
+            if (diff != 0) {
+                state.holders.forEach((portfolio, quantity) -> {
+                    AtomicLong total = totals.get(portfolio);
+                    if (total != null) {
+                        try {
+                            total.accumulateAndGet(FixedPoint.multiply(diff, quantity), FixedPoint::add);
+                        } catch (ArithmeticException e) {
+                            stale.add(portfolio);
+                        }
+                    }
+                });
+                state.priceUnits = newUnits;
+            }
+        }
+    }
+
+    /**
+     * Full recomputation from the portfolio's holdings and the engine's current
+     * prices - the O(holdings) path the running total replaces.
+     */
+    public BigDecimal recomputeTotalValue(Portfolio portfolio) {
+        long total = 0;
+        for (Map.Entry<String, Integer> entry : portfolio.getHoldings().entrySet()) {
+            total = FixedPoint.add(total, FixedPoint.multiply(stateOf(entry.getKey()).priceUnits, entry.getValue()));
+        }
+        return FixedPoint.toBigDecimal(total);
+    }
+
+    /**
+     * Consistency check: does the running total match a full recomputation?
+     * Only meaningful while the portfolio and prices are not being changed.
+     */
+    public boolean isConsistent(Portfolio portfolio) {
+        return getTotalValue(portfolio).compareTo(recomputeTotalValue(portfolio)) == 0;
+    }
+
+    private void onHoldingChanged(HoldingChangedEvent event) {
+        onHoldingChanged(event.portfolio(), event.symbol(), event.quantityDelta());
+    }
+
+    private void onHoldingChanged(Portfolio portfolio, String symbol, long quantityDelta) {
+        try {
+            applyHoldingChange(portfolio, symbol, quantityDelta);
+        } catch (RuntimeException e) {
+            // Thrown here, it would fail a trade that was applied and drop the batch's other deltas
+            stale.add(portfolio);
+        }
+    }
+
+    private void applyHoldingChange(Portfolio portfolio, String symbol, long quantityDelta) {
+        AtomicLong total = totals.get(portfolio);
+        if (total == null) {
+            return;
+        }
+        SymbolState state = stateOf(symbol);
+        synchronized (state) {
+            long quantity = state.holders.getOrDefault(portfolio, 0L) + quantityDelta;
+            if (quantity == 0) {
+                state.holders.remove(portfolio);
+            } else {
+                state.holders.put(portfolio, quantity);
+            }
+            total.accumulateAndGet(FixedPoint.multiply(state.priceUnits, quantityDelta), FixedPoint::add);
+        }
+    }
+
+    /**
+     * Re-tracks a stale portfolio: holder quantities and the total are reset
+     * from its current holdings. Exact under the same condition as track():
+     * the portfolio is not traded on while this runs.
+     */
+    private void resync(Portfolio portfolio, AtomicLong total) {
+        synchronized (total) {
+            if (!stale.remove(portfolio)) {
+                return;
+            }
+            try {
+                Map<String, Integer> holdings = portfolio.snapshot();
+                long units = 0;
+                for (Map.Entry<String, Integer> entry : holdings.entrySet()) {
+                    SymbolState state = stateOf(entry.getKey());
+                    synchronized (state) {
+                        state.holders.put(portfolio, (long) entry.getValue());
+                        units = FixedPoint.add(units, FixedPoint.multiply(state.priceUnits, entry.getValue()));
+                    }
+                }
+                symbols.forEach((symbol, state) -> {
+                    if (!holdings.containsKey(symbol)) {
+                        synchronized (state) {
+                            state.holders.remove(portfolio);
+                        }
+                    }
+                });
+                total.set(units);
+            } catch (RuntimeException e) {
+                stale.add(portfolio);
+                throw e;
+            }
+        }
+    }
+
+    private SymbolState stateOf(String symbol) {
+        return symbols.computeIfAbsent(symbol, s -> {
+            Asset asset = assetRepository.findById(s)
+                    .orElseThrow(() -> new IllegalStateException("Asset not found for symbol: " + s));
+            return new SymbolState(asset.getPriceUnits());
+        });
+    }
+
+    private AtomicLong totalOf(Portfolio portfolio) {
+        AtomicLong total = totals.get(portfolio);
+        if (total == null) {
+            throw new IllegalArgumentException("Portfolio is not tracked");
+        }
+        return total;
+    }
+}
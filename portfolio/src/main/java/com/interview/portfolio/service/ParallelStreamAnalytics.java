@@ -0,0 +1,154 @@
+package com.interview.portfolio.service;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Stock;
+import java.math.BigDecimal;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel counterpart of StreamAnalytics for large asset universes.
+ *
+ * Key points:
+ * 1. Small inputs stay sequential (delegated to StreamAnalytics) - below the
+ * threshold, fork/join overhead costs more than it saves.
+ * 2. Large inputs run on a dedicated ForkJoinPool instead of the common pool,
+ * so analytics cannot starve (or be starved by) other parallel streams and
+ * CompletableFutures in the JVM. A parallel stream started from inside a
+ * ForkJoinPool task uses that pool.
+ * 3. Collectors are chosen to combine cheaply: groupingByConcurrent / toConcurrentMap
+ * write into one shared ConcurrentHashMap, and counting uses small per-thread
+ * maps merged at the end, instead of merging large per-thread HashMaps of lists.
+ */
+public class ParallelStreamAnalytics implements AutoCloseable {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+
+    private final StreamAnalytics sequential = new StreamAnalytics();
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public ParallelStreamAnalytics() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public ParallelStreamAnalytics(int parallelism, int parallelThreshold) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public List<String> getHighValueSymbols(List<Asset> assets, BigDecimal priceThreshold) {
+        if (isSmall(assets)) {
+            return sequential.getHighValueSymbols(assets, priceThreshold);
+        }
+        return inPool(() -> assets.parallelStream()
+                .filter(a -> a.getPrice().compareTo(priceThreshold) > 0)
+                .map(Asset::getSymbol)
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Order of stocks within a sector is not defined for parallel runs.
+     */
+    public Map<String, List<Stock>> groupStocksBySector(List<Asset> assets) {
+        if (isSmall(assets)) {
+            return sequential.groupStocksBySector(assets);
+        }
+        return inPool(() -> assets.parallelStream()
+                .filter(a -> a instanceof Stock)
+                .map(a -> (Stock) a)
+                .collect(Collectors.groupingByConcurrent(Stock::getSector)));
+    }
+
+    public Map<String, Long> countStocksBySector(List<Asset> assets) {
+        if (isSmall(assets)) {
+            return sequential.countStocksBySector(assets);
+        }
+        return inPool(() -> assets.parallelStream()
+                .filter(a -> a instanceof Stock)
+                .map(a -> ((Stock) a).getSector())
+                .collect(countingBy()));
+    }
+
+    /**
+     * Mergeable counting collector: each thread counts into its own small map
+     * (one entry per sector), and the partial maps are summed at the end.
+     */
+    private static Collector<String, Map<String, Long>, Map<String, Long>> countingBy() {
+        return Collector.of(
+                HashMap::new,
+                (counts, key) -> counts.merge(key, 1L, Long::sum),
+                (left, right) -> {
+                    right.forEach((key, count) -> left.merge(key, count, Long::sum));
+                    return left;
+                });
+    }
+
+    public Map<Boolean, List<Asset>> partitionByValuation(List<Asset> assets) {
+        if (isSmall(assets)) {
+            return sequential.partitionByValuation(assets);
+        }
+        BigDecimal threshold = new BigDecimal("1000");
+        // partitioningBy combines cheaply: just two lists per merge
+        return inPool(() -> assets.parallelStream()
+                .collect(Collectors.partitioningBy(a -> a.getPrice().compareTo(threshold) > 0)));
+    }
+
+    public DoubleSummaryStatistics getPriceStatistics(List<Asset> assets) {
+        if (isSmall(assets)) {
+            return sequential.getPriceStatistics(assets);
+        }
+        return inPool(() -> assets.parallelStream()
+                .mapToDouble(a -> a.getPrice().doubleValue())
+                .summaryStatistics());
+    }
+
+    public Map<String, Asset> createSymbolMapHandlingDuplicates(List<Asset> assets) {
+        if (isSmall(assets)) {
+            return sequential.createSymbolMapHandlingDuplicates(assets);
+        }
+        return inPool(() -> assets.parallelStream()
+                .collect(Collectors.toConcurrentMap(
+                        Asset::getSymbol,
+                        Function.identity(),
+                        (existing, newer) -> existing.getPrice().compareTo(newer.getPrice()) >= 0 ? existing : newer)));
+    }
+
+    public Set<String> getAllDistinctSectors(List<List<Asset>> multiplePortfolios) {
+        long total = multiplePortfolios.stream().mapToLong(List::size).sum();
+        if (total < parallelThreshold) {
+            return sequential.getAllDistinctSectors(multiplePortfolios);
+        }
+        return inPool(() -> {
+            Set<String> sectors = ConcurrentHashMap.newKeySet();
+            multiplePortfolios.parallelStream()
+                    .flatMap(List::stream)
+                    .filter(a -> a instanceof Stock)
+                    .forEach(a -> sectors.add(((Stock) a).getSector()));
+            return sectors;
+        });
+    }
+
+    private boolean isSmall(List<?> assets) {
+        return assets.size() < parallelThreshold;
+    }
+
+    private <R> R inPool(Supplier<R> query) {
+        return pool.submit(query::get).join();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
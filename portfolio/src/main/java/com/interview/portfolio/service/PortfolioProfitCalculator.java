@@ -2,16 +2,39 @@ package com.interview.portfolio.service;
 
 import com.interview.portfolio.domain.Asset;
 import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.FixedPoint;
+import com.interview.portfolio.domain.RestrictedStock;
 import com.interview.portfolio.domain.Stock;
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Demonstrates Modern Java Syntax (Java 14 - 17 Standard Features).
  * 1. Pattern Matching for instanceof (Java 16)
  * 2. Switch Expressions (Java 14)
+ *
+ * The bulk methods compute the same results for a whole batch. The type
+ * dispatch becomes a rate lookup indexed by AssetTable type code, and the
+ * arithmetic is a branch-light loop over primitive columns.
  */
 public class PortfolioProfitCalculator {
 
+    private static final BigDecimal STOCK_TAX_RATE = new BigDecimal("0.15");
+    private static final BigDecimal BOND_TAX_RATE = new BigDecimal("0.10");
+
+    // 15% and 10% in FixedPoint units
+    private static final long STOCK_TAX_RATE_UNITS = 1_500L;
+    private static final long BOND_TAX_RATE_UNITS = 1_000L;
+
+    // Tax rate by AssetTable.TYPE_* code
+    private static final long[] TAX_RATE_UNITS_BY_TYPE = new long[3];
+
+    static {
+        TAX_RATE_UNITS_BY_TYPE[AssetTable.TYPE_STOCK] = STOCK_TAX_RATE_UNITS;
+        TAX_RATE_UNITS_BY_TYPE[AssetTable.TYPE_RESTRICTED_STOCK] = STOCK_TAX_RATE_UNITS;
+        TAX_RATE_UNITS_BY_TYPE[AssetTable.TYPE_BOND] = BOND_TAX_RATE_UNITS;
+    }
+
     /**
      * Calculates tax using Pattern Matching for instanceof.
      * Prevents the need for explicit casting: 'Stock s = (Stock) asset;'
@@ -21,16 +44,91 @@ public class PortfolioProfitCalculator {
         // passes
         if (asset instanceof Stock s) {
             // Logic: Stocks taxed at 15% of price (simplified capital gains)
-            return s.getPrice().multiply(new BigDecimal("0.15"));
+            return s.getPrice().multiply(STOCK_TAX_RATE);
         } else if (asset instanceof Bond b) {
             // Logic: Bonds taxed at 10%
             // Note: We can access 'b' directly here
-            return b.getPrice().multiply(new BigDecimal("0.10"));
+            return b.getPrice().multiply(BOND_TAX_RATE);
         } else {
             return BigDecimal.ZERO;
         }
     }
 
+    /**
+     * Fixed-point variant of calculateEstimatedTax.
+     * Returns the tax in FixedPoint units, equal to the BigDecimal result rounded
+     * HALF_UP to FixedPoint.SCALE decimals.
+     *
+     * @throws ArithmeticException if the price has no fixed-point representation
+     */
+    public long calculateEstimatedTaxUnits(Asset asset) {
+        if (asset instanceof Stock s) {
+            return FixedPoint.multiplyRate(s.getPriceUnits(), STOCK_TAX_RATE_UNITS);
+        } else if (asset instanceof Bond b) {
+            return FixedPoint.multiplyRate(b.getPriceUnits(), BOND_TAX_RATE_UNITS);
+        } else {
+            return 0L;
+        }
+    }
+
+    /**
+     * Bulk calculateEstimatedTaxUnits: one pass splits the batch into price
+     * and type columns, then the columnar overload computes the taxes.
+     *
+     * @return the tax of each asset in FixedPoint units, in list order
+     * @throws ArithmeticException if a price has no fixed-point representation
+     */
+    public long[] calculateEstimatedTaxUnits(List<? extends Asset> assets) {
+        int size = assets.size();
+        long[] priceUnits = new long[size];
+        byte[] types = new byte[size];
+        for (int i = 0; i < size; i++) {
+            Asset asset = assets.get(i);
+            priceUnits[i] = asset.getPriceUnits();
+            types[i] = asset instanceof Bond ? AssetTable.TYPE_BOND
+                    : asset instanceof RestrictedStock ? AssetTable.TYPE_RESTRICTED_STOCK : AssetTable.TYPE_STOCK;
+        }
+        return calculateEstimatedTaxUnits(priceUnits, types);
+    }
+
+    /**
+     * Columnar calculateEstimatedTaxUnits.
+     *
+     * @param priceUnits prices in FixedPoint units
+     * @param types      AssetTable.TYPE_* code of each row
+     * @return the tax of each row in FixedPoint units
+     * @throws IllegalArgumentException if the columns differ in length or a
+     *                                  type code is unknown
+     */
+    public long[] calculateEstimatedTaxUnits(long[] priceUnits, byte[] types) {
+        if (priceUnits.length != types.length) {
+            throw new IllegalArgumentException("Price and type columns differ in length: "
+                    + priceUnits.length + " prices, " + types.length + " types");
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] < 0 || types[i] >= TAX_RATE_UNITS_BY_TYPE.length) {
+                throw new IllegalArgumentException("Unknown asset type code " + types[i] + " at row " + i);
+            }
+        }
+        long[] taxes = new long[priceUnits.length];
+        for (int i = 0; i < priceUnits.length; i++) {
+            taxes[i] = FixedPoint.multiplyRate(priceUnits[i], TAX_RATE_UNITS_BY_TYPE[types[i]]);
+        }
+        return taxes;
+    }
+
+    /**
+     * Total estimated tax of every row of the table, in FixedPoint units.
+     */
+    public long calculateTotalEstimatedTaxUnits(AssetTable table) {
+        long total = 0;
+        for (int row = 0; row < table.size(); row++) {
+            total = FixedPoint.add(total,
+                    FixedPoint.multiplyRate(table.priceUnitsAt(row), TAX_RATE_UNITS_BY_TYPE[table.typeAt(row)]));
+        }
+        return total;
+    }
+
     /**
      * Evaluates sector risk using Switch Expressions.
      * Demonstrates: Arrow syntax (->), Yielding values, Exhaustiveness (if Enum
@@ -48,4 +146,24 @@ public class PortfolioProfitCalculator {
             default -> "Unknown Risk";
         };
     }
+
+    /**
+     * Bulk evaluateSectorRisk over a table's rows. The string switch runs once
+     * per distinct sector to fill a lookup table indexed by sector id; each row
+     * is then a single array read.
+     *
+     * @return the risk of each row, null for rows without a sector (Bonds)
+     */
+    public String[] evaluateSectorRisks(AssetTable table) {
+        String[] riskBySector = new String[table.sectorCount()];
+        for (int sectorId = 0; sectorId < riskBySector.length; sectorId++) {
+            riskBySector[sectorId] = evaluateSectorRisk(table.sectorName(sectorId));
+        }
+        String[] risks = new String[table.size()];
+        for (int row = 0; row < risks.length; row++) {
+            int sectorId = table.sectorIdAt(row);
+            risks[row] = sectorId == AssetTable.NO_SECTOR ? null : riskBySector[sectorId];
+        }
+        return risks;
+    }
 }
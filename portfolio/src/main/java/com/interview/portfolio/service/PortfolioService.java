@@ -1,6 +1,7 @@
 package com.interview.portfolio.service;
 
 import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.FixedPoint;
 import com.interview.portfolio.domain.Portfolio;
 import com.interview.portfolio.repository.GenericRepository;
 import java.math.BigDecimal;
@@ -26,4 +27,35 @@ public class PortfolioService {
         }
         return total;
     }
+
+    /**
+     * Primitive fast path of calculateTotalValue using fixed-point prices.
+     * Falls back to the BigDecimal path if a price has no fixed-point form or
+     * the total overflows, so the result always equals calculateTotalValue.
+     */
+    public BigDecimal calculateTotalValueFixedPoint(Portfolio portfolio) {
+        try {
+            return FixedPoint.toBigDecimal(calculateTotalValueUnits(portfolio));
+        } catch (ArithmeticException e) {
+            return calculateTotalValue(portfolio);
+        }
+    }
+
+    /**
+     * Total value in fixed-point units (see {@link FixedPoint}).
+     *
+     * @throws ArithmeticException if a price is not representable or the total
+     *                             overflows
+     */
+    public long calculateTotalValueUnits(Portfolio portfolio) {
+        long total = 0;
+        for (Map.Entry<String, Integer> entry : portfolio.getHoldings().entrySet()) {
+            String symbol = entry.getKey();
+            Asset asset = assetRepository.findById(symbol)
+                    .orElseThrow(() -> new IllegalStateException("Asset not found for symbol: " + symbol));
+
+            total = FixedPoint.add(total, FixedPoint.multiply(asset.getPriceUnits(), entry.getValue()));
+        }
+        return total;
+    }
 }
@@ -0,0 +1,24 @@
+package com.interview.portfolio.service;
+
+/**
+ * Counters of a CoalescingPricePredictor.
+ *
+ * @param requests        predict calls received
+ * @param cacheHits       answered from the TTL cache
+ * @param coalesced       joined an identical request already in flight
+ * @param backendCalls    batch calls made to the backend
+ * @param backendRequests predictions requested from the backend (sum of batch sizes)
+ */
+public record PredictorStats(long requests, long cacheHits, long coalesced, long backendCalls, long backendRequests) {
+
+    /**
+     * Requests that did not cost a backend prediction.
+     */
+    public long deduplicated() {
+        return cacheHits + coalesced;
+    }
+
+    public double averageBatchSize() {
+        return backendCalls == 0 ? 0.0 : (double) backendRequests / backendCalls;
+    }
+}
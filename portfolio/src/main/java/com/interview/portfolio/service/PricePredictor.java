@@ -0,0 +1,39 @@
+package com.interview.portfolio.service;
+
+import com.interview.portfolio.domain.Asset;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SPI for the (remote) market prediction backend used by AnalysisService.
+ * Implementations: SimulatedPricePredictor (local stand-in) and
+ * CoalescingPricePredictor (deduplicating/batching/caching decorator).
+ */
+public interface PricePredictor {
+
+    /**
+     * Predicted price of the asset after the given number of months.
+     */
+    CompletableFuture<BigDecimal> predict(Asset asset, int months);
+
+    /**
+     * Predictions for many assets, keyed by symbol. The default issues one
+     * predict per asset; backends with a batch endpoint override it.
+     */
+    default CompletableFuture<Map<String, BigDecimal>> predictAll(List<? extends Asset> assets, int months) {
+        Map<String, BigDecimal> predictions = new HashMap<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[assets.size()];
+        for (int i = 0; i < futures.length; i++) {
+            Asset asset = assets.get(i);
+            futures[i] = predict(asset, months).thenAccept(price -> {
+                synchronized (predictions) {
+                    predictions.put(asset.getSymbol(), price);
+                }
+            });
+        }
+        return CompletableFuture.allOf(futures).thenApply(v -> predictions);
+    }
+}
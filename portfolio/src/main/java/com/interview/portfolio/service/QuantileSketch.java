@@ -0,0 +1,235 @@
+package com.interview.portfolio.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Streaming quantile estimates in bounded memory: a KLL sketch (Karnin, Lang,
+ * Liberty 2016).
+ *
+ * Items live in levels of "compactors"; an item on level h stands for 2^h
+ * input values. When the sketch is over capacity, the lowest full level is
+ * sorted and every other item (from a random start) is promoted to the next
+ * level with double weight; the rest are dropped. Capacities shrink by 2/3
+ * per level below the top, so the sketch keeps about 3k items however long
+ * the stream, and a rank query is off by about 1.7/k of n (~1% for the
+ * default k = 200). Two sketches merge by concatenating levels and
+ * compacting, so partitions of a parallel stream can be combined.
+ */
+public final class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 8;
+
+    private final int k;
+    private final SplittableRandom random = new SplittableRandom();
+    private final List<double[]> levels = new ArrayList<>();
+    private int[] sizes = new int[0];
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter: error is about 1.7/k of n, memory about 3k doubles
+     */
+    public QuantileSketch(int k) {
+        if (k < MIN_LEVEL_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_LEVEL_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        addLevel();
+    }
+
+    public static <T> Collector<T, ?, QuantileSketch> collector(ToDoubleFunction<? super T> value) {
+        return collector(value, DEFAULT_K);
+    }
+
+    public static <T> Collector<T, ?, QuantileSketch> collector(ToDoubleFunction<? super T> value, int k) {
+        return Collector.of(
+                () -> new QuantileSketch(k),
+                (sketch, item) -> sketch.add(value.applyAsDouble(item)),
+                QuantileSketch::merge,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN cannot be ranked");
+        }
+        if (count == 0 || value < min) {
+            min = value;
+        }
+        if (count == 0 || value > max) {
+            max = value;
+        }
+        count++;
+        append(0, value);
+        if (sizes[0] >= capacity(0)) {
+            compress();
+        }
+    }
+
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        while (levels.size() < other.levels.size()) {
+            addLevel();
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels.get(h)[i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        compress();
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Number of values currently stored, which bounds the sketch's memory.
+     */
+    public int retained() {
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        return retained;
+    }
+
+    /**
+     * @return NaN if empty
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * @return NaN if empty
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * @param q between 0 and 1, e.g. 0.99
+     * @return an estimate of the value with rank q * count, NaN if empty
+     */
+    public double quantile(double q) {
+        return quantiles(q)[0];
+    }
+
+    /**
+     * Several quantiles from one sort of the retained items.
+     */
+    public double[] quantiles(double... qs) {
+        double[] result = new double[qs.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        int retained = retained();
+        // Each item packed with its level, sorted by value
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        Integer[] order = new Integer[retained];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels.get(h)[i];
+                weights[n] = 1L << h;
+                order[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+
+        for (int j = 0; j < qs.length; j++) {
+            double q = qs[j];
+            if (q < 0.0 || q > 1.0) {
+                throw new IllegalArgumentException("Quantile must be within [0, 1]: " + q);
+            }
+            if (q == 0.0) {
+                result[j] = min;
+                continue;
+            }
+            if (q == 1.0) {
+                result[j] = max;
+                continue;
+            }
+            long rank = (long) Math.ceil(q * totalWeight);
+            long seen = 0;
+            result[j] = max;
+            for (Integer i : order) {
+                seen += weights[i];
+                if (seen >= rank) {
+                    result[j] = values[i];
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compacts full levels, lowest first, until every level is within capacity.
+     */
+    private void compress() {
+        for (int h = 0; h < levels.size(); h++) {
+            if (sizes[h] < capacity(h)) {
+                continue;
+            }
+            if (h == levels.size() - 1) {
+                addLevel(); // capacities of the lower levels shrink as the top moves up
+            }
+            double[] items = levels.get(h);
+            int size = sizes[h];
+            Arrays.sort(items, 0, size);
+            // An odd item out stays on this level, so no weight is lost
+            int leftover = size % 2;
+            for (int i = leftover + random.nextInt(2); i < size; i += 2) {
+                append(h + 1, items[i]);
+            }
+            sizes[h] = leftover;
+        }
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void append(int level, double value) {
+        double[] items = levels.get(level);
+        if (sizes[level] == items.length) {
+            items = Arrays.copyOf(items, Math.max(MIN_LEVEL_CAPACITY, items.length * 2));
+            levels.set(level, items);
+        }
+        items[sizes[level]++] = value;
+    }
+
+    private void addLevel() {
+        levels.add(new double[MIN_LEVEL_CAPACITY]);
+        sizes = Arrays.copyOf(sizes, levels.size());
+    }
+}
@@ -1,13 +1,51 @@
 package com.interview.portfolio.service;
 
 import com.interview.portfolio.domain.Asset;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Utility class to demonstrate reflection capabilities.
  * Inspects class hierarchies and enforces type constraints dynamically.
+ *
+ * Asset type validation sits on the ingestion path, so its outcome is cached
+ * per class in a ClassValue (a per-Class slot the JVM looks up without
+ * hashing, and that doesn't keep the class from being unloaded). The
+ * rejection message is built once, when a class is first seen.
  */
 public class ReflectiveAssetInspector {
 
+    /**
+     * Cached outcome for one class: message is null if the class is valid.
+     */
+    private record Validation(String message) {
+        boolean valid() {
+            return message == null;
+        }
+    }
+
+    /**
+     * Asset is sealed, so its direct hierarchy is known at startup. Sealed
+     * branches are expanded; non-sealed ones (Stock) can have further
+     * subclasses, which are checked with isAssignableFrom on first sight.
+     */
+    private static final Set<Class<?>> PERMITTED_ASSET_TYPES = permittedSubclasses(Asset.class);
+
+    private static final ClassValue<Validation> ASSET_TYPE_VALIDATION = new ClassValue<>() {
+        @Override
+        protected Validation computeValue(Class<?> type) {
+            if (PERMITTED_ASSET_TYPES.contains(type) || (type != Asset.class && Asset.class.isAssignableFrom(type))) {
+                return new Validation(null);
+            }
+            return new Validation("Class " + type.getName() + " is not a valid Asset subclass");
+        }
+    };
+
     /**
      * Checks if the potential subclass is actually a subclass of the superclass.
      * Use this to prevent usage of class types chains by explicitly checking
@@ -21,6 +59,9 @@ public class ReflectiveAssetInspector {
         if (potentialSubclass == null || superClass == null) {
             return false;
         }
+        if (superClass == Asset.class) {
+            return isAssetType(potentialSubclass);
+        }
         return superClass.isAssignableFrom(potentialSubclass) && !potentialSubclass.equals(superClass);
     }
 
@@ -31,8 +72,77 @@ public class ReflectiveAssetInspector {
      * @throws IllegalArgumentException if the type is not a subclass of Asset
      */
     public void validateAssetType(Class<?> type) {
-        if (!checkSubclass(type, Asset.class)) {
-            throw new IllegalArgumentException("Class " + type.getName() + " is not a valid Asset subclass");
+        if (type == null) {
+            throw new IllegalArgumentException("Asset type must not be null");
+        }
+        Validation validation = ASSET_TYPE_VALIDATION.get(type);
+        if (!validation.valid()) {
+            throw new IllegalArgumentException(validation.message());
+        }
+    }
+
+    /**
+     * Validates a whole batch, reporting every invalid type in one exception.
+     *
+     * @throws IllegalArgumentException if any type is not a subclass of Asset
+     */
+    public void validateAssetTypes(Collection<? extends Class<?>> types) {
+        Set<Class<?>> rejected = classifyAssetTypes(types).get(false);
+        if (!rejected.isEmpty()) {
+            throw new IllegalArgumentException("Classes " + rejected.stream()
+                    .map(type -> type == null ? "null" : type.getName())
+                    .collect(Collectors.joining(", ")) + " are not valid Asset subclasses");
+        }
+    }
+
+    /**
+     * Classifies a batch of incoming types in one pass.
+     *
+     * @return the distinct types, partitioned into valid (true) and invalid
+     *         (false) Asset subclasses, in order of first appearance; null
+     *         counts as invalid
+     */
+    public Map<Boolean, Set<Class<?>>> classifyAssetTypes(Collection<? extends Class<?>> types) {
+        Set<Class<?>> valid = new LinkedHashSet<>();
+        Set<Class<?>> rejected = new LinkedHashSet<>();
+        Class<?> previous = null;
+        for (Class<?> type : types) {
+            // Batches are usually runs of one type: skip the lookup for repeats
+            if (type == previous && type != null) {
+                continue;
+            }
+            previous = type;
+            if (type != null && ASSET_TYPE_VALIDATION.get(type).valid()) {
+                valid.add(type);
+            } else {
+                rejected.add(type);
+            }
+        }
+        return Map.of(true, valid, false, rejected);
+    }
+
+    /**
+     * Asset's sealed hierarchy, as declared by the permits clauses.
+     */
+    public static Set<Class<?>> permittedAssetTypes() {
+        return PERMITTED_ASSET_TYPES;
+    }
+
+    private static boolean isAssetType(Class<?> type) {
+        return ASSET_TYPE_VALIDATION.get(type).valid();
+    }
+
+    private static Set<Class<?>> permittedSubclasses(Class<?> root) {
+        Set<Class<?>> permitted = new LinkedHashSet<>();
+        Deque<Class<?>> sealed = new ArrayDeque<>();
+        sealed.push(root);
+        while (!sealed.isEmpty()) {
+            for (Class<?> subclass : sealed.pop().getPermittedSubclasses()) {
+                if (permitted.add(subclass) && subclass.isSealed()) {
+                    sealed.push(subclass);
+                }
+            }
         }
+        return Set.copyOf(permitted);
     }
 }
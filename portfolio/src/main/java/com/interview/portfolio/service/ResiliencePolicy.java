@@ -0,0 +1,27 @@
+package com.interview.portfolio.service;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a ResilientPricePredictor.
+ *
+ * @param timeout            overall deadline per call (including any hedge);
+ *                           after it, the fallback value is returned
+ * @param maxConcurrentCalls bulkhead: calls outstanding against the backend at
+ *                           once; beyond it, calls fail fast to the fallback
+ * @param hedging            whether to send a duplicate call when the first one is slow
+ * @param initialHedgeDelay  hedge delay used until enough latencies have been
+ *                           observed to estimate the p95
+ */
+public record ResiliencePolicy(Duration timeout, int maxConcurrentCalls, boolean hedging, Duration initialHedgeDelay) {
+
+    public ResiliencePolicy {
+        if (timeout.isNegative() || timeout.isZero() || maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("Timeout and max concurrent calls must be positive");
+        }
+    }
+
+    public static ResiliencePolicy defaults() {
+        return new ResiliencePolicy(Duration.ofSeconds(1), 64, true, Duration.ofMillis(250));
+    }
+}
@@ -0,0 +1,15 @@
+package com.interview.portfolio.service;
+
+/**
+ * Counters of a ResilientPricePredictor.
+ *
+ * @param calls              calls received
+ * @param timeouts           calls answered with the fallback after the timeout
+ * @param failures           calls answered with the fallback after an error
+ * @param bulkheadRejections calls rejected because the backend was saturated
+ * @param hedgesSent         duplicate calls sent because the first was slow
+ * @param hedgeWins          hedges that finished before the original call
+ */
+public record ResilienceStats(long calls, long timeouts, long failures, long bulkheadRejections, long hedgesSent,
+        long hedgeWins) {
+}
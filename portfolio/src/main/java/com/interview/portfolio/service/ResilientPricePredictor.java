@@ -0,0 +1,232 @@
+package com.interview.portfolio.service;
+
+import com.interview.portfolio.domain.Asset;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Decorator that bounds the latency a slow PricePredictor backend can add:
+ *
+ * - Bulkhead: a Semaphore caps the calls outstanding against the backend.
+ * When it is saturated, new calls get the fallback at once instead of queueing
+ * behind the slow ones (tryAcquire, never blocks).
+ * - Hedging: if a call hasn't answered after the recent p95 latency, the same
+ * request is sent again and whichever answers first wins. Only ~5% of calls
+ * are duplicated, but the slowest tail is cut to roughly p95 + a normal call.
+ * - Timeout: orTimeout puts a hard deadline on the whole call (hedge
+ * included); after it, the configured fallback value is returned. This also
+ * bounds allOf-style fan-in, which otherwise waits for the slowest call.
+ *
+ * After close(), new calls fail with IllegalStateException before reaching
+ * the backend; a call racing with close() goes out unhedged.
+ */
+public class ResilientPricePredictor implements PricePredictor, AutoCloseable {
+
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final PricePredictor backend;
+    private final ResiliencePolicy policy;
+    private final Function<Asset, BigDecimal> fallback;
+    private final Semaphore bulkhead;
+    private final LatencyWindow latencies = new LatencyWindow();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "predictor-hedger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * @param fallback value returned for an asset whose prediction timed out,
+     *                 failed or was rejected by the bulkhead
+     */
+    public ResilientPricePredictor(PricePredictor backend, ResiliencePolicy policy, Function<Asset, BigDecimal> fallback) {
+        this.backend = backend;
+        this.policy = policy;
+        this.fallback = fallback;
+        this.bulkhead = new Semaphore(policy.maxConcurrentCalls());
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> predict(Asset asset, int months) {
+        return execute(() -> backend.predict(asset, months), () -> fallback.apply(asset));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, BigDecimal>> predictAll(List<? extends Asset> assets, int months) {
+        return execute(() -> backend.predictAll(assets, months), () -> {
+            Map<String, BigDecimal> fallbacks = new HashMap<>();
+            assets.forEach(asset -> fallbacks.put(asset.getSymbol(), fallback.apply(asset)));
+            return fallbacks;
+        });
+    }
+
+    /**
+     * Current hedge delay: p95 of recent successful calls, or the policy's
+     * initial delay until enough calls have been observed.
+     */
+    public long hedgeDelayNanos() {
+        long p95 = latencies.p95();
+        return p95 < 0 ? policy.initialHedgeDelay().toNanos() : p95;
+    }
+
+    public ResilienceStats stats() {
+        return new ResilienceStats(calls.sum(), timeouts.sum(), failures.sum(), bulkheadRejections.sum(),
+                hedgesSent.sum(), hedgeWins.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call, Supplier<T> fallbackValue) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Predictor is closed"));
+        }
+        calls.increment();
+        Attempts<T> attempts = new Attempts<>(call);
+        if (!attempt(attempts, false)) {
+            bulkheadRejections.increment();
+            return CompletableFuture.completedFuture(fallbackValue.get());
+        }
+        if (policy.hedging()) {
+            hedge(attempts);
+        }
+        return attempts.result.orTimeout(policy.timeout().toNanos(), TimeUnit.NANOSECONDS).handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                timeouts.increment();
+            } else {
+                failures.increment();
+            }
+            return fallbackValue.get();
+        });
+    }
+
+    private <T> void hedge(Attempts<T> attempts) {
+        ScheduledFuture<?> hedge;
+        try {
+            hedge = scheduler.schedule(() -> {
+                if (!attempts.result.isDone()) {
+                    attempts.outstanding.incrementAndGet();
+                    if (attempt(attempts, true)) {
+                        hedgesSent.increment();
+                    } else {
+                        attempts.outstanding.decrementAndGet(); // bulkhead full: don't add load to a saturated backend
+                    }
+                }
+            }, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed after the call was sent: it still completes, just without a hedge
+            return;
+        }
+        attempts.result.whenComplete((value, error) -> hedge.cancel(false));
+    }
+
+    /**
+     * Sends one call if the bulkhead has room.
+     *
+     * @return false if the bulkhead rejected it
+     */
+    private <T> boolean attempt(Attempts<T> attempts, boolean isHedge) {
+        if (!bulkhead.tryAcquire()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = attempts.call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> {
+            // The permit is held until the backend really answers, even after a
+            // timeout: that is what the bulkhead protects
+            bulkhead.release();
+            if (error == null) {
+                latencies.record(System.nanoTime() - start);
+                // Decide the winner before completing, so stats are current when callers wake up
+                if (!attempts.result.isDone() && attempts.won.compareAndSet(false, true)) {
+                    if (isHedge) {
+                        hedgeWins.increment();
+                    }
+                    attempts.result.complete(value);
+                }
+            } else if (attempts.outstanding.decrementAndGet() == 0) {
+                attempts.result.completeExceptionally(error);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * State shared by the original call and its hedge.
+     */
+    private static final class Attempts<T> {
+        final Supplier<CompletableFuture<T>> call;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        // Attempts still running; the result fails only when all of them have failed
+        final AtomicInteger outstanding = new AtomicInteger(1);
+        final AtomicBoolean won = new AtomicBoolean();
+
+        Attempts(Supplier<CompletableFuture<T>> call) {
+            this.call = call;
+        }
+    }
+
+    /**
+     * Ring buffer of the last LATENCY_WINDOW successful latencies. The p95 is
+     * recomputed (copy + sort of at most 256 longs) every RECOMPUTE_EVERY
+     * samples rather than on every call.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples = new long[LATENCY_WINDOW];
+        private long recorded;
+        private volatile long p95 = -1;
+
+        synchronized void record(long nanos) {
+            samples[(int) (recorded % LATENCY_WINDOW)] = nanos;
+            recorded++;
+            if (recorded >= MIN_SAMPLES && (p95 < 0 || recorded % RECOMPUTE_EVERY == 0)) {
+                long[] sorted = Arrays.copyOf(samples, (int) Math.min(recorded, LATENCY_WINDOW));
+                Arrays.sort(sorted);
+                p95 = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+            }
+        }
+
+        long p95() {
+            return p95;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.interview.portfolio.service;
+
+import com.interview.event.EventListener;
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.AssetChangedEvent;
+import com.interview.portfolio.domain.FixedPoint;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.ObservableAssetRepository;
+import java.math.BigDecimal;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Materialized view of what dashboards ask StreamAnalytics for on every
+ * refresh (countStocksBySector, groupStocksBySector, getPriceStatistics),
+ * kept up to date from AssetChangedEvents instead of rescanning all assets.
+ *
+ * - Write: the replaced asset is subtracted from its sector and the new one
+ * added -> O(log assets in the sector), for the min/max multiset.
+ * - Read: O(sectors), plus the members for symbolsBySector.
+ *
+ * Events for different ids are applied concurrently; each sector's aggregate
+ * has its own lock. rebuild() recomputes everything exactly from a scan,
+ * both to initialize the view and to verify it.
+ * Prices must have a fixed-point representation, and assets are assumed
+ * to be stored under their symbol (as GenericRepository.add does). An event
+ * for an asset without one is rejected before the view changes. If applying
+ * an event fails part way, the view is marked stale and an attached view
+ * rebuilds itself from the repository on the next read.
+ */
+public class SectorAggregateView implements EventListener<AssetChangedEvent> {
+
+    /**
+     * Aggregates of one sector, prices in FixedPoint units.
+     */
+    public record SectorAggregate(long count, long sumUnits, long minUnits, long maxUnits) {
+
+        public BigDecimal sum() {
+            return FixedPoint.toBigDecimal(sumUnits);
+        }
+
+        public BigDecimal min() {
+            return FixedPoint.toBigDecimal(minUnits);
+        }
+
+        public BigDecimal max() {
+            return FixedPoint.toBigDecimal(maxUnits);
+        }
+    }
+
+    /**
+     * Mutable state behind a SectorAggregate; guarded by its own monitor.
+     */
+    private static final class Aggregate {
+        long count;
+        long sumUnits;
+        // price -> number of assets at that price, so min/max survive removals
+        final TreeMap<Long, Integer> prices = new TreeMap<>();
+        final Set<String> members; // null for the all-assets total
+
+        Aggregate(boolean trackMembers) {
+            this.members = trackMembers ? new HashSet<>() : null;
+        }
+
+        synchronized void add(String id, long priceUnits) {
+            count++;
+            sumUnits = FixedPoint.add(sumUnits, priceUnits);
+            prices.merge(priceUnits, 1, Integer::sum);
+            if (members != null) {
+                members.add(id);
+            }
+        }
+
+        synchronized void remove(String id, long priceUnits) {
+            count--;
+            sumUnits -= priceUnits;
+            prices.merge(priceUnits, -1, (a, b) -> a + b == 0 ? null : a + b);
+            if (members != null) {
+                members.remove(id);
+            }
+        }
+
+        synchronized SectorAggregate snapshot() {
+            return count == 0 ? null : new SectorAggregate(count, sumUnits, prices.firstKey(), prices.lastKey());
+        }
+
+        synchronized Set<String> membersCopy() {
+            return Set.copyOf(members);
+        }
+    }
+
+    // Events take the read lock (many at once); rebuild takes the write lock
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final Map<String, Asset> current = new ConcurrentHashMap<>();
+    private final Map<String, Aggregate> sectors = new ConcurrentHashMap<>();
+    private volatile Aggregate all = new Aggregate(false);
+    // Where an attached view rebuilds from; null for a standalone view
+    private Supplier<? extends Stream<? extends Asset>> source;
+    private volatile boolean stale;
+
+    /**
+     * Creates a view of the repository: subscribes to its events, then builds
+     * the initial state from a scan. Writes racing with the scan are applied
+     * after it, against the scanned state, so none is lost or counted twice.
+     */
+    public static SectorAggregateView attach(ObservableAssetRepository repository) {
+        SectorAggregateView view = new SectorAggregateView();
+        view.rebuildLock.writeLock().lock();
+        try {
+            view.source = repository::scan;
+            repository.addListener(view);
+            view.rebuildFrom(repository.scan());
+        } finally {
+            view.rebuildLock.writeLock().unlock();
+        }
+        return view;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the new asset has no fixed-point
+     *                                  price; the view is left unchanged
+     */
+    @Override
+    public void onEvent(AssetChangedEvent event) {
+        Asset next = event.current();
+        // Validated before anything is subtracted, so a bad asset cannot leave a half-applied delta
+        if (next != null && !next.hasFixedPointPrice()) {
+            throw new IllegalArgumentException("Price of " + next.getSymbol()
+                    + " is not representable at scale " + FixedPoint.SCALE);
+        }
+        rebuildLock.readLock().lock();
+        try {
+            // Per-id serialization: the delta is taken against what this view last saw for the id
+            current.compute(event.id(), (id, old) -> {
+                if (old != null) {
+                    apply(id, old, false);
+                }
+                if (next != null) {
+                    apply(id, next, true);
+                }
+                return next;
+            });
+        } catch (RuntimeException | Error e) {
+            stale = true;
+            throw e;
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole view with aggregates computed from scratch.
+     */
+    public void rebuild(Stream<? extends Asset> assets) {
+        rebuildLock.writeLock().lock();
+        try {
+            rebuildFrom(assets);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * True if an event failed part way and the view has not been rebuilt since.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Equivalent of StreamAnalytics.countStocksBySector.
+     */
+    public Map<String, Long> countStocksBySector() {
+        refreshIfStale();
+        Map<String, Long> counts = new TreeMap<>();
+        aggregates().forEach((sector, aggregate) -> counts.put(sector, aggregate.count()));
+        return counts;
+    }
+
+    /**
+     * Membership: the ids of the stocks in each sector (copied, O(assets)).
+     */
+    public Map<String, Set<String>> symbolsBySector() {
+        refreshIfStale();
+        Map<String, Set<String>> members = new TreeMap<>();
+        sectors.forEach((sector, aggregate) -> {
+            Set<String> ids = aggregate.membersCopy();
+            if (!ids.isEmpty()) {
+                members.put(sector, ids);
+            }
+        });
+        return members;
+    }
+
+    /**
+     * Count, sum, min and max of stock prices per sector.
+     */
+    public Map<String, SectorAggregate> aggregates() {
+        refreshIfStale();
+        Map<String, SectorAggregate> aggregates = new TreeMap<>();
+        sectors.forEach((sector, aggregate) -> {
+            SectorAggregate snapshot = aggregate.snapshot();
+            if (snapshot != null) {
+                aggregates.put(sector, snapshot);
+            }
+        });
+        return aggregates;
+    }
+
+    /**
+     * Equivalent of StreamAnalytics.getPriceStatistics, over every asset.
+     */
+    public DoubleSummaryStatistics getPriceStatistics() {
+        refreshIfStale();
+        SectorAggregate total = all.snapshot();
+        if (total == null) {
+            return new DoubleSummaryStatistics();
+        }
+        return new DoubleSummaryStatistics(total.count(), FixedPoint.toDouble(total.minUnits()),
+                FixedPoint.toDouble(total.maxUnits()), FixedPoint.toDouble(total.sumUnits()));
+    }
+
+    private void refreshIfStale() {
+        if (!stale || source == null) {
+            return;
+        }
+        rebuildLock.writeLock().lock();
+        try {
+            if (stale) {
+                rebuildFrom(source.get());
+            }
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Caller holds the write lock. Stale until the scan has been applied in full.
+     */
+    private void rebuildFrom(Stream<? extends Asset> assets) {
+        stale = true;
+        current.clear();
+        sectors.clear();
+        all = new Aggregate(false);
+        assets.forEach(asset -> {
+            if (current.put(asset.getSymbol(), asset) == null) {
+                apply(asset.getSymbol(), asset, true);
+            }
+        });
+        stale = false;
+    }
+
+    private void apply(String id, Asset asset, boolean add) {
+        long priceUnits = asset.getPriceUnits();
+        Aggregate total = all;
+        Aggregate sector = asset instanceof Stock s
+                ? sectors.computeIfAbsent(s.getSector(), name -> new Aggregate(true))
+                : null;
+        if (add) {
+            total.add(id, priceUnits);
+            if (sector != null) {
+                sector.add(id, priceUnits);
+            }
+        } else {
+            total.remove(id, priceUnits);
+            if (sector != null) {
+                sector.remove(id, priceUnits);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.interview.portfolio.service;
+
+import com.interview.portfolio.domain.Asset;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for a remote prediction API: 50-200ms of latency per call
+ * (single or batch), then Price * (1 + 0.01 * months), i.e. 1% growth per month.
+ * Optionally every n-th call is slow, to reproduce tail latency.
+ */
+public class SimulatedPricePredictor implements PricePredictor {
+
+    private final Executor executor;
+    private final int slowEvery;
+    private final long slowLatencyMillis;
+    private final AtomicLong calls = new AtomicLong();
+
+    public SimulatedPricePredictor(Executor executor) {
+        this(executor, 0, Duration.ZERO);
+    }
+
+    /**
+     * @param slowEvery   every slowEvery-th call (the 1st, (n+1)-th, ...) takes
+     *                    slowLatency instead of 50-200ms; 0 disables it
+     */
+    public SimulatedPricePredictor(Executor executor, int slowEvery, Duration slowLatency) {
+        this.executor = executor;
+        this.slowEvery = slowEvery;
+        this.slowLatencyMillis = slowLatency.toMillis();
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> predict(Asset asset, int months) {
+        return CompletableFuture.supplyAsync(() -> {
+            simulateLatency();
+            return grow(asset, months);
+        }, executor);
+    }
+
+    /**
+     * One round trip for the whole batch.
+     */
+    @Override
+    public CompletableFuture<Map<String, BigDecimal>> predictAll(List<? extends Asset> assets, int months) {
+        return CompletableFuture.supplyAsync(() -> {
+            simulateLatency();
+            Map<String, BigDecimal> predictions = new HashMap<>();
+            for (Asset asset : assets) {
+                predictions.put(asset.getSymbol(), grow(asset, months));
+            }
+            return predictions;
+        }, executor);
+    }
+
+    private static BigDecimal grow(Asset asset, int months) {
+        BigDecimal growthFactor = BigDecimal.valueOf(1 + (0.01 * months));
+        return asset.getPrice().multiply(growthFactor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private void simulateLatency() {
+        try {
+            boolean slow = slowEvery > 0 && calls.getAndIncrement() % slowEvery == 0;
+            // 50-200ms sleep, or the injected tail latency
+            Thread.sleep(slow ? slowLatencyMillis : (long) (Math.random() * 150 + 50));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
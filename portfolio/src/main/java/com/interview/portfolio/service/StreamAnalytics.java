@@ -1,7 +1,9 @@
 package com.interview.portfolio.service;
 
 import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.FixedPoint;
 import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.domain.SymbolTable;
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.function.Function;
@@ -48,6 +50,59 @@ public class StreamAnalytics {
                 .collect(Collectors.groupingBy(Stock::getSector, Collectors.counting()));
     }
 
+    /**
+     * Pattern 2b: Grouping into an array indexed by Stock.getSectorId().
+     * Same result as groupStocksBySector, but each stock costs an array index
+     * instead of hashing and comparing its sector string.
+     */
+    public Map<String, List<Stock>> groupStocksBySectorId(List<Asset> assets) {
+        List<List<Stock>> buckets = new ArrayList<>(Collections.nCopies(SymbolTable.sectors().size(), null));
+        for (Asset asset : assets) {
+            if (asset instanceof Stock s) {
+                int sectorId = s.getSectorId();
+                while (sectorId >= buckets.size()) {
+                    buckets.add(null); // sector interned after we sized the array
+                }
+                List<Stock> bucket = buckets.get(sectorId);
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    buckets.set(sectorId, bucket);
+                }
+                bucket.add(s);
+            }
+        }
+        Map<String, List<Stock>> bySector = new HashMap<>();
+        for (int sectorId = 0; sectorId < buckets.size(); sectorId++) {
+            if (buckets.get(sectorId) != null) {
+                bySector.put(SymbolTable.sectors().symbolOf(sectorId), buckets.get(sectorId));
+            }
+        }
+        return bySector;
+    }
+
+    /**
+     * Pattern 3b: countStocksBySector with a long[] indexed by sector id.
+     */
+    public Map<String, Long> countStocksBySectorId(List<Asset> assets) {
+        long[] counts = new long[SymbolTable.sectors().size()];
+        for (Asset asset : assets) {
+            if (asset instanceof Stock s) {
+                int sectorId = s.getSectorId();
+                if (sectorId >= counts.length) {
+                    counts = Arrays.copyOf(counts, sectorId + 1);
+                }
+                counts[sectorId]++;
+            }
+        }
+        Map<String, Long> bySector = new HashMap<>();
+        for (int sectorId = 0; sectorId < counts.length; sectorId++) {
+            if (counts[sectorId] > 0) {
+                bySector.put(SymbolTable.sectors().symbolOf(sectorId), counts[sectorId]);
+            }
+        }
+        return bySector;
+    }
+
     /**
      * Pattern 4: Partitioning By.
      * "Split assets into two lists: Expensive (> 1000) and Cheap (<= 1000)."
@@ -69,6 +124,35 @@ public class StreamAnalytics {
                 .summaryStatistics();
     }
 
+    /**
+     * Pattern 5b: Primitive Summary Statistics.
+     * Same as getPriceStatistics but over fixed-point prices: no BigDecimal
+     * unboxing, and min/max/sum are exact longs (in FixedPoint units).
+     *
+     * @throws ArithmeticException if a price has no fixed-point representation
+     */
+    public LongSummaryStatistics getPriceStatisticsFixedPoint(List<Asset> assets) {
+        return assets.stream()
+                .mapToLong(Asset::getPriceUnits)
+                .summaryStatistics();
+    }
+
+    /**
+     * Pattern 1b: getHighValueSymbols with a fixed-point threshold, comparing
+     * primitive longs instead of BigDecimals. A price with no fixed-point
+     * representation falls back to a BigDecimal comparison.
+     */
+    public List<String> getHighValueSymbolsFixedPoint(List<Asset> assets, long priceThresholdUnits) {
+        BigDecimal threshold = FixedPoint.toBigDecimal(priceThresholdUnits);
+        return assets.stream()
+                .filter(a -> a.hasFixedPointPrice()
+                        ? a.getPriceUnits() > priceThresholdUnits
+                        : a.getPrice().compareTo(threshold) > 0)
+                .map(Asset::getSymbol)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
     /**
      * Pattern 6: To Map (Handling Duplicates).
      * "Create a Map of Symbol -> Asset. If duplicate symbols exist, keep the one
@@ -96,4 +180,38 @@ public class StreamAnalytics {
                 .map(a -> ((Stock) a).getSector())
                 .collect(Collectors.toSet());
     }
+
+    /**
+     * Pattern 8: Top-K without sorting everything.
+     * "The k most expensive assets, most expensive first." A bounded heap
+     * collector keeps k items per partition, so this also runs on a parallel
+     * stream in O(k) memory per thread.
+     */
+    public List<Asset> getTopKByPrice(List<Asset> assets, int k) {
+        return assets.stream()
+                .collect(TopK.collector(k, Comparator.comparing(Asset::getPrice)));
+    }
+
+    /**
+     * Pattern 9: Grouping By with a bounded downstream collector.
+     * "The n most expensive stocks of each sector."
+     */
+    public Map<String, List<Stock>> getTopNBySector(List<Asset> assets, int n) {
+        return assets.stream()
+                .filter(a -> a instanceof Stock)
+                .map(a -> (Stock) a)
+                .collect(Collectors.groupingBy(Stock::getSector,
+                        TopK.collector(n, Comparator.comparing(Stock::getPrice))));
+    }
+
+    /**
+     * Pattern 10: Approximate percentiles.
+     * "p50 / p90 / p99 of prices" from a mergeable sketch of ~3k doubles
+     * rather than a sorted copy of every price (rank error about 1%).
+     */
+    public double[] getPriceQuantiles(List<Asset> assets, double... quantiles) {
+        return assets.stream()
+                .collect(QuantileSketch.collector(a -> a.getPrice().doubleValue()))
+                .quantiles(quantiles);
+    }
 }
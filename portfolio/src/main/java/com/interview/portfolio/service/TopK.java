@@ -0,0 +1,67 @@
+package com.interview.portfolio.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * The k largest items of a stream, in O(n log k) time and O(k) memory,
+ * instead of sorting all n.
+ *
+ * A min-heap holds the current top k: its root is the smallest of them, so a
+ * new item only has to beat the root to get in. Two partial results merge by
+ * feeding one heap into the other, which makes this a parallel-stream
+ * collector whose partitions never hold more than k items each.
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+
+    public TopK(int k, Comparator<? super T> comparator) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, comparator);
+    }
+
+    /**
+     * Collects the k largest items by comparator, largest first.
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> comparator) {
+        return Collector.of(
+                () -> new TopK<T>(k, comparator),
+                TopK::add,
+                TopK::merge,
+                TopK::toList);
+    }
+
+    public void add(T item) {
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (comparator.compare(item, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    public TopK<T> merge(TopK<T> other) {
+        other.heap.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * @return the retained items, largest first
+     */
+    public List<T> toList() {
+        List<T> items = new ArrayList<>(heap);
+        items.sort(Collections.reverseOrder(comparator));
+        return items;
+    }
+}
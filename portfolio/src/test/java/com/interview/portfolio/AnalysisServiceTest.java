@@ -4,16 +4,24 @@ import com.interview.portfolio.service.AnalysisService;
 import com.interview.portfolio.domain.Asset;
 import com.interview.portfolio.domain.Stock;
 import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.repository.MapBasedGenericRepository;
+import com.interview.portfolio.service.PricePredictor;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,4 +68,104 @@ class AnalysisServiceTest {
         // Bond: 1000 * 1.12 = 1120.00 (Logic is simplistic for demo)
         assertEquals(new BigDecimal("1120.00"), results.get("US10Y"));
     }
+
+    @Test
+    void testAnalyzeAssetsStreaming_BoundsInFlightBatches() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+        AnalysisService tracking = new AnalysisService() {
+            @Override
+            public CompletableFuture<Map<String, BigDecimal>> predictFutureValues(List<? extends Asset> batch, int months) {
+                calls.incrementAndGet();
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return super.predictFutureValues(batch, months).whenComplete((r, e) -> inFlight.decrementAndGet());
+            }
+        };
+        try {
+            List<Asset> universe = IntStream.range(0, 1_000)
+                    .mapToObj(i -> (Asset) new Stock("S" + i, "Name" + i, "Tech", new BigDecimal("100.00")))
+                    .toList();
+
+            Map<String, BigDecimal> results = tracking.analyzeAssetsStreaming(universe.stream(), 12, 100, 3).get();
+
+            assertEquals(1_000, results.size());
+            assertEquals(new BigDecimal("112.00"), results.get("S999"));
+            assertEquals(10, calls.get());
+            assertTrue(maxInFlight.get() <= 3);
+        } finally {
+            tracking.shutdown();
+        }
+    }
+
+    @Test
+    void testAnalyzeAssetsStreaming_SynchronousPredictorDoesNotOverflow() throws Exception {
+        // Every future is already complete, like cache hits in CoalescingPricePredictor
+        PricePredictor synchronous = (asset, months) -> CompletableFuture.completedFuture(asset.getPrice());
+        AnalysisService sync = new AnalysisService(null, synchronous);
+        try {
+            Stream<Asset> universe = IntStream.range(0, 200_000)
+                    .mapToObj(i -> new Stock("S" + i, "Name", "Tech", BigDecimal.ONE));
+
+            Map<String, BigDecimal> results = sync.analyzeAssetsStreaming(universe, 12, 1, 4)
+                    .get(10, TimeUnit.SECONDS);
+
+            assertEquals(200_000, results.size());
+        } finally {
+            sync.shutdown();
+        }
+    }
+
+    @Test
+    void testAnalyzeAssetsStreaming_FailureWhileMergingCompletesResult() {
+        PricePredictor nullValues = new PricePredictor() {
+            @Override
+            public CompletableFuture<BigDecimal> predict(Asset asset, int months) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Map<String, BigDecimal>> predictAll(List<? extends Asset> assets, int months) {
+                Map<String, BigDecimal> predictions = new HashMap<>();
+                assets.forEach(asset -> predictions.put(asset.getSymbol(), null));
+                return CompletableFuture.supplyAsync(() -> predictions);
+            }
+        };
+        AnalysisService failing = new AnalysisService(null, nullValues);
+        try {
+            Stream<Asset> universe = IntStream.range(0, 100)
+                    .mapToObj(i -> new Stock("S" + i, "Name", "Tech", BigDecimal.ONE));
+
+            CompletableFuture<Map<String, BigDecimal>> result = failing.analyzeAssetsStreaming(universe, 12, 10, 2);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NullPointerException.class, e.getCause());
+        } finally {
+            failing.shutdown();
+        }
+    }
+
+    @Test
+    void testAnalyzePortfolio_ResolvesHoldingsThroughRepository() throws Exception {
+        MapBasedGenericRepository<Asset> repository = new MapBasedGenericRepository<>();
+        Asset apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("100.00"));
+        Asset bond = new Bond("US10Y", new BigDecimal("1000.00"), new BigDecimal("0.05"));
+        repository.add(apple);
+        repository.add(bond);
+        Portfolio portfolio = new Portfolio();
+        portfolio.addAsset(apple, 10);
+        portfolio.addAsset(bond, 1);
+        AnalysisService withRepository = new AnalysisService(repository);
+        try {
+            Map<String, BigDecimal> results = withRepository.analyzePortfolio(portfolio).get();
+
+            assertEquals(Map.of("AAPL", new BigDecimal("112.00"), "US10Y", new BigDecimal("1120.00")), results);
+
+            portfolio.addAsset(new Stock("MSFT", "Microsoft", "Tech", BigDecimal.ONE), 1);
+            assertThrows(IllegalStateException.class, () -> withRepository.analyzePortfolio(portfolio));
+            assertThrows(IllegalStateException.class, () -> service.analyzePortfolio(portfolio));
+        } finally {
+            withRepository.shutdown();
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.FixedPoint;
+import com.interview.portfolio.domain.RestrictedStock;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.service.AssetTable;
+import com.interview.portfolio.service.StreamAnalytics;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetTableTest {
+
+    private final StreamAnalytics analytics = new StreamAnalytics();
+
+    @Test
+    void testColumnsDecodeBackToAssets() {
+        List<Asset> assets = List.of(
+                new Stock("AAPL", "Apple", "Tech", new BigDecimal("150")),
+                new RestrictedStock("META", "Meta", "Tech", new BigDecimal("300"), 12),
+                new Bond("US10Y", new BigDecimal("100"), new BigDecimal("0.05")));
+
+        AssetTable table = AssetTable.of(assets);
+
+        assertEquals(3, table.size());
+        assertEquals("META", table.symbolAt(1));
+        assertEquals("Tech", table.sectorAt(1));
+        assertNull(table.sectorAt(2));
+        assertEquals(AssetTable.TYPE_RESTRICTED_STOCK, table.typeAt(1));
+        assertEquals(AssetTable.TYPE_BOND, table.typeAt(2));
+        assertEquals(150 * FixedPoint.ONE, table.priceUnitsAt(0));
+    }
+
+    @Test
+    void testQueriesMatchStreamAnalytics() {
+        // Large enough to span several parallel chunks
+        List<Asset> assets = randomUniverse(200_000);
+        AssetTable table = AssetTable.of(assets);
+
+        for (boolean parallel : new boolean[] { false, true }) {
+            assertEquals(analytics.getHighValueSymbols(assets, new BigDecimal("4000")),
+                    table.getHighValueSymbols(4000 * FixedPoint.ONE, parallel));
+            assertEquals(analytics.countStocksBySector(assets), table.countStocksBySector(parallel));
+
+            DoubleSummaryStatistics expected = analytics.getPriceStatistics(assets);
+            DoubleSummaryStatistics actual = table.getPriceStatistics(parallel);
+            assertEquals(expected.getCount(), actual.getCount());
+            assertEquals(expected.getMin(), actual.getMin());
+            assertEquals(expected.getMax(), actual.getMax());
+            assertEquals(expected.getAverage(), actual.getAverage(), 1e-6);
+        }
+
+        Map<String, List<Stock>> expectedGroups = analytics.groupStocksBySector(assets);
+        Map<String, int[]> groups = table.groupStocksBySector();
+        assertEquals(expectedGroups.keySet(), groups.keySet());
+        groups.forEach((sector, rows) -> {
+            assertEquals(expectedGroups.get(sector).size(), rows.length);
+            for (int row : rows) {
+                assertEquals(sector, table.sectorAt(row));
+            }
+        });
+
+        Map<Boolean, List<Asset>> expectedPartition = analytics.partitionByValuation(assets);
+        Map<Boolean, int[]> partition = table.partitionByValuation();
+        assertEquals(expectedPartition.get(true).size(), partition.get(true).length);
+        assertEquals(expectedPartition.get(false).size(), partition.get(false).length);
+    }
+
+    private List<Asset> randomUniverse(int size) {
+        String[] sectors = { "Tech", "Finance", "Consumer", "Utilities", "Energy" };
+        Random random = new Random(7);
+        List<Asset> assets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(50_000_000), 4);
+            if (i % 4 == 0) {
+                assets.add(new Bond("B" + i, price, new BigDecimal("0.03")));
+            } else {
+                assets.add(new Stock("S" + i, "Name" + i, sectors[random.nextInt(sectors.length)], price));
+            }
+        }
+        return assets;
+    }
+}
@@ -0,0 +1,107 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.GenericRepository;
+import com.interview.portfolio.service.BatchValuationService;
+import com.interview.portfolio.service.BatchValuationService.ValuationResult;
+import com.interview.portfolio.service.PortfolioService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchValuationServiceTest {
+
+    @Mock
+    private GenericRepository<Asset> assetRepository;
+
+    private final Stock apple = new Stock("AAPL", "Apple Inc.", "Tech", new BigDecimal("150.00"));
+    private final Stock tesla = new Stock("TSLA", "Tesla Inc.", "Auto", new BigDecimal("200.00"));
+    private final Stock unknown = new Stock("UNKNOWN", "Unknown", "None", new BigDecimal("10"));
+
+    @Test
+    void testResolvesEachSymbolOnceAndMatchesPortfolioService() {
+        when(assetRepository.findById("AAPL")).thenReturn(Optional.of(apple));
+        when(assetRepository.findById("TSLA")).thenReturn(Optional.of(tesla));
+
+        List<Portfolio> portfolios = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Portfolio portfolio = new Portfolio();
+            portfolio.addAsset(apple, 1 + i % 7);
+            if (i % 2 == 0) {
+                portfolio.addAsset(tesla, 1 + i % 5);
+            }
+            portfolios.add(portfolio);
+        }
+
+        List<ValuationResult> results;
+        try (BatchValuationService service = new BatchValuationService(assetRepository, 4)) {
+            results = service.valueAll(portfolios);
+        }
+
+        verify(assetRepository, times(1)).findById("AAPL");
+        verify(assetRepository, times(1)).findById("TSLA");
+
+        PortfolioService single = new PortfolioService(assetRepository);
+        assertEquals(portfolios.size(), results.size());
+        for (int i = 0; i < portfolios.size(); i++) {
+            ValuationResult result = results.get(i);
+            assertSame(portfolios.get(i), result.portfolio());
+            assertTrue(result.isComplete());
+            assertEquals(0, single.calculateTotalValue(portfolios.get(i)).compareTo(result.totalValue()));
+        }
+    }
+
+    @Test
+    void testMissingAssetIsReportedPerPortfolio() {
+        when(assetRepository.findById("AAPL")).thenReturn(Optional.of(apple));
+        when(assetRepository.findById("UNKNOWN")).thenReturn(Optional.empty());
+
+        Portfolio healthy = new Portfolio();
+        healthy.addAsset(apple, 10);
+        Portfolio broken = new Portfolio();
+        broken.addAsset(apple, 1);
+        broken.addAsset(unknown, 1);
+
+        try (BatchValuationService service = new BatchValuationService(assetRepository)) {
+            List<ValuationResult> results = service.valueAll(List.of(healthy, broken));
+
+            assertTrue(results.get(0).isComplete());
+            assertEquals(0, new BigDecimal("1500").compareTo(results.get(0).totalValue()));
+
+            assertFalse(results.get(1).isComplete());
+            assertEquals(Set.of("UNKNOWN"), results.get(1).missingSymbols());
+            assertEquals(0, new BigDecimal("150").compareTo(results.get(1).totalValue()));
+        }
+    }
+
+    @Test
+    void testHoldingAddedDuringBatchIsNotReportedMissing() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.addAsset(apple, 2);
+        // A concurrent writer adds TSLA after the prices were resolved
+        when(assetRepository.findById("AAPL")).thenAnswer(invocation -> {
+            portfolio.addAsset(tesla, 1);
+            return Optional.of(apple);
+        });
+
+        try (BatchValuationService service = new BatchValuationService(assetRepository, 2)) {
+            ValuationResult result = service.valueAll(List.of(portfolio)).get(0);
+
+            assertTrue(result.isComplete(), "Missing: " + result.missingSymbols());
+            assertEquals(0, new BigDecimal("300").compareTo(result.totalValue()));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.service.AnalysisService;
+import com.interview.portfolio.service.CoalescingPricePredictor;
+import com.interview.portfolio.service.PricePredictor;
+import com.interview.portfolio.service.PredictorStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingPricePredictorTest {
+
+    /**
+     * Backend that doubles the price and records the size of every batch call.
+     */
+    private static class RecordingBackend implements PricePredictor {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final AtomicBoolean failNext = new AtomicBoolean();
+
+        @Override
+        public CompletableFuture<BigDecimal> predict(Asset asset, int months) {
+            throw new UnsupportedOperationException("batch calls only");
+        }
+
+        @Override
+        public CompletableFuture<Map<String, BigDecimal>> predictAll(List<? extends Asset> assets, int months) {
+            batchSizes.add(assets.size());
+            if (failNext.getAndSet(false)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("backend down"));
+            }
+            Map<String, BigDecimal> predictions = new HashMap<>();
+            assets.forEach(asset -> predictions.put(asset.getSymbol(), asset.getPrice().multiply(BigDecimal.valueOf(2))));
+            return CompletableFuture.completedFuture(predictions);
+        }
+    }
+
+    private final RecordingBackend backend = new RecordingBackend();
+    private final AtomicLong clock = new AtomicLong();
+    private final CoalescingPricePredictor predictor = new CoalescingPricePredictor(backend, Duration.ofMillis(50), 4,
+            Duration.ofMinutes(1), clock::get);
+
+    @AfterEach
+    void tearDown() {
+        predictor.close();
+    }
+
+    private static Stock stock(String symbol) {
+        return new Stock(symbol, symbol, "Tech", new BigDecimal("10"));
+    }
+
+    @Test
+    void testIdenticalRequestsShareOneBackendPrediction() throws Exception {
+        List<CompletableFuture<BigDecimal>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(predictor.predict(stock("AAPL"), 12));
+        }
+        for (CompletableFuture<BigDecimal> future : futures) {
+            assertEquals(new BigDecimal("20"), future.get());
+        }
+
+        assertEquals(List.of(1), backend.batchSizes);
+        PredictorStats stats = predictor.stats();
+        assertEquals(100, stats.requests());
+        assertEquals(99, stats.coalesced());
+        assertEquals(99, stats.deduplicated());
+    }
+
+    @Test
+    void testDistinctRequestsAreBatched() throws Exception {
+        List<CompletableFuture<BigDecimal>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(predictor.predict(stock("S" + i), 12));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+
+        // maxBatchSize 4: two full batches flushed early, the rest at the end of the window
+        assertEquals(List.of(4, 4, 2), backend.batchSizes);
+        assertEquals(10.0 / 3, predictor.stats().averageBatchSize(), 1e-9);
+    }
+
+    @Test
+    void testResultsAreCachedUntilTtlExpires() throws Exception {
+        predictor.predict(stock("AAPL"), 12).get();
+
+        assertEquals(new BigDecimal("20"), predictor.predict(stock("AAPL"), 12).get());
+        assertEquals(1, backend.batchSizes.size());
+        assertEquals(1, predictor.stats().cacheHits());
+
+        // A different horizon or price is a different request
+        predictor.predict(stock("AAPL"), 6).get();
+        assertEquals(2, backend.batchSizes.size());
+
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        predictor.predict(stock("AAPL"), 12).get();
+        assertEquals(3, backend.batchSizes.size());
+    }
+
+    @Test
+    void testPredictAfterCloseFailsAndCollectedBatchesStillFlush() throws Exception {
+        CompletableFuture<BigDecimal> collected = predictor.predict(stock("AAPL"), 12);
+        predictor.close();
+
+        assertEquals(new BigDecimal("20"), collected.get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<BigDecimal> late = predictor.predict(stock("MSFT"), 12);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+        assertEquals(List.of(1), backend.batchSizes);
+    }
+
+    @Test
+    void testFailuresAreNotCached() throws Exception {
+        backend.failNext.set(true);
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> predictor.predict(stock("AAPL"), 12).get());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+        assertEquals(new BigDecimal("20"), predictor.predict(stock("AAPL"), 12).get());
+        assertEquals(2, backend.batchSizes.size());
+    }
+
+    @Test
+    void testAnalysisServiceUsesPluggablePredictor() throws Exception {
+        AnalysisService service = new AnalysisService(null, predictor);
+        try {
+            Map<String, BigDecimal> results = service.analyzeAssets(List.of(stock("A"), stock("B")), 12).get();
+
+            assertEquals(Map.of("A", new BigDecimal("20"), "B", new BigDecimal("20")), results);
+            assertEquals(List.of(2), backend.batchSizes);
+        } finally {
+            service.shutdown();
+        }
+    }
+}
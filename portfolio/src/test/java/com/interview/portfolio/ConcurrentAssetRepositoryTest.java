@@ -0,0 +1,139 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.RestrictedStock;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.ConcurrentAssetRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentAssetRepositoryTest {
+
+    @Test
+    void testRepeatedSaveDoesNotDuplicateIndexes() {
+        ConcurrentAssetRepository<Asset> repository = new ConcurrentAssetRepository<>();
+        Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("150"));
+
+        for (int i = 0; i < 100; i++) {
+            repository.add(apple);
+        }
+
+        assertEquals(1, repository.size());
+        assertEquals(List.of(apple), repository.findAllByType(Stock.class));
+        assertEquals(List.of(apple), repository.findBySector("Tech"));
+    }
+
+    @Test
+    void testUpdateMovesEntityBetweenIndexes() {
+        ConcurrentAssetRepository<Asset> repository = new ConcurrentAssetRepository<>();
+        repository.add(new Stock("AAPL", "Apple", "Tech", new BigDecimal("150")));
+        Stock moved = new Stock("AAPL", "Apple", "Consumer", new BigDecimal("900"));
+
+        repository.save("AAPL", moved);
+
+        assertTrue(repository.findBySector("Tech").isEmpty());
+        assertEquals(List.of(moved), repository.findBySector("Consumer"));
+        assertTrue(repository.findByPriceRange(new BigDecimal("100"), new BigDecimal("200")).isEmpty());
+        assertEquals(List.of(moved), repository.findByPriceRange(new BigDecimal("800"), new BigDecimal("1000")));
+
+        repository.remove("AAPL");
+        assertTrue(repository.findById("AAPL").isEmpty());
+        assertTrue(repository.findBySector("Consumer").isEmpty());
+    }
+
+    @Test
+    void testTypeAndPriceRangeQueries() {
+        ConcurrentAssetRepository<Asset> repository = new ConcurrentAssetRepository<>();
+        Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("150"));
+        Stock coke = new Stock("KO", "Coca Cola", "Consumer", new BigDecimal("60"));
+        RestrictedStock meta = new RestrictedStock("META", "Meta", "Tech", new BigDecimal("300"), 12);
+        Bond bond = new Bond("US10Y", new BigDecimal("100"), new BigDecimal("0.05"));
+        List.of(apple, coke, meta, bond).forEach(repository::add);
+
+        // Exact runtime class, like MapBasedGenericRepository's registry
+        assertEquals(2, repository.findAllByType(Stock.class).size());
+        assertEquals(List.of(meta), repository.findAllByType(RestrictedStock.class));
+        assertEquals(List.of(bond), repository.findAllByType(Bond.class));
+
+        // Ascending price order, inclusive bounds
+        assertEquals(List.of(bond, apple, meta),
+                repository.findByPriceRange(new BigDecimal("100"), new BigDecimal("300")));
+    }
+
+    @Test
+    void testConcurrentMixedReadWrite() throws InterruptedException {
+        ConcurrentAssetRepository<Asset> repository = new ConcurrentAssetRepository<>();
+        int threads = 8;
+        int symbols = 200;
+        // A reader saw a result out of range, or the same id twice
+        AtomicBoolean readerSawViolation = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    String symbol = "S" + (i % symbols);
+                    if (thread % 2 == 0) {
+                        repository.add(new Stock(symbol, "Name", "Sector" + (i % 3), BigDecimal.valueOf(i % 100)));
+                    } else {
+                        List<Asset> inRange = repository.findByPriceRange(BigDecimal.ZERO, BigDecimal.valueOf(50));
+                        Set<String> seen = new HashSet<>();
+                        for (Asset a : inRange) {
+                            if (a.getPrice().compareTo(BigDecimal.valueOf(50)) > 0 || !seen.add(a.getSymbol())) {
+                                readerSawViolation.set(true);
+                            }
+                        }
+                        repository.findById(symbol);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertFalse(readerSawViolation.get());
+        assertEquals(symbols, repository.size());
+        // After writers finish, every index agrees with the primary index
+        assertEquals(symbols, repository.findAllByType(Stock.class).size());
+        assertEquals(symbols, repository.findByPriceRange(BigDecimal.ZERO, BigDecimal.valueOf(100)).size());
+        int bySector = 0;
+        for (int s = 0; s < 3; s++) {
+            bySector += repository.findBySector("Sector" + s).size();
+        }
+        assertEquals(symbols, bySector);
+    }
+
+    @Test
+    void testParallelBulkLoadBuildsSameIndexes() {
+        Map<String, Asset> universe = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            universe.put("S" + i, new Stock("S" + i, "Name" + i, "Sector" + (i % 10), BigDecimal.valueOf(i % 100)));
+        }
+        ConcurrentAssetRepository<Asset> bulk = new ConcurrentAssetRepository<>(universe.size());
+        ConcurrentAssetRepository<Asset> oneByOne = new ConcurrentAssetRepository<>();
+
+        bulk.saveAll(universe);
+        universe.forEach(oneByOne::save);
+
+        assertEquals(oneByOne.size(), bulk.size());
+        assertEquals(oneByOne.findBySector("Sector3").size(), bulk.findBySector("Sector3").size());
+        assertEquals(oneByOne.findByPriceRange(BigDecimal.ZERO, BigDecimal.TEN).size(),
+                bulk.findByPriceRange(BigDecimal.ZERO, BigDecimal.TEN).size());
+        assertEquals(50_000, bulk.scan().parallel().count());
+        assertEquals(2, bulk.findAllById(List.of("S1", "NOPE", "S2")).size());
+    }
+}
@@ -0,0 +1,101 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.FixedPoint;
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.GenericRepository;
+import com.interview.portfolio.repository.MapBasedGenericRepository;
+import com.interview.portfolio.service.PortfolioProfitCalculator;
+import com.interview.portfolio.service.PortfolioService;
+import com.interview.portfolio.service.StreamAnalytics;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointPriceTest {
+
+    @Test
+    void testFixedPointConversionAndOverflow() {
+        Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("150.25"));
+        assertTrue(apple.hasFixedPointPrice());
+        assertEquals(1_502_500L, apple.getPriceUnits());
+        assertEquals(0, new BigDecimal("150.25").compareTo(FixedPoint.toBigDecimal(apple.getPriceUnits())));
+
+        // More decimals than the configured scale -> no fixed-point price
+        Stock tiny = new Stock("TINY", "Tiny", "Tech", new BigDecimal("0.000001"));
+        assertFalse(tiny.hasFixedPointPrice());
+        assertThrows(ArithmeticException.class, tiny::getPriceUnits);
+
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.add(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    void testFastPathsMatchBigDecimalResults() {
+        Random random = new Random(42);
+        GenericRepository<Asset> repository = new MapBasedGenericRepository<>();
+        Portfolio portfolio = new Portfolio();
+        List<Asset> assets = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(100_000_000), 4);
+            Asset asset = i % 3 == 0
+                    ? new Bond("B" + i, price, new BigDecimal("0.05"))
+                    : new Stock("S" + i, "Name" + i, "Tech", price);
+            repository.add(asset);
+            portfolio.addAsset(asset, 1 + random.nextInt(10_000));
+            assets.add(asset);
+        }
+
+        PortfolioService service = new PortfolioService(repository);
+        BigDecimal expectedTotal = service.calculateTotalValue(portfolio);
+        assertEquals(0, expectedTotal.compareTo(service.calculateTotalValueFixedPoint(portfolio)));
+
+        StreamAnalytics analytics = new StreamAnalytics();
+        DoubleSummaryStatistics expectedStats = analytics.getPriceStatistics(assets);
+        LongSummaryStatistics stats = analytics.getPriceStatisticsFixedPoint(assets);
+        assertEquals(expectedStats.getCount(), stats.getCount());
+        assertEquals(expectedStats.getMin(), FixedPoint.toDouble(stats.getMin()));
+        assertEquals(expectedStats.getMax(), FixedPoint.toDouble(stats.getMax()));
+        assertEquals(analytics.getHighValueSymbols(assets, new BigDecimal("5000")),
+                analytics.getHighValueSymbolsFixedPoint(assets, 5000 * FixedPoint.ONE));
+
+        PortfolioProfitCalculator calculator = new PortfolioProfitCalculator();
+        for (Asset asset : assets) {
+            BigDecimal expectedTax = calculator.calculateEstimatedTax(asset).setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+            assertEquals(0, expectedTax.compareTo(FixedPoint.toBigDecimal(calculator.calculateEstimatedTaxUnits(asset))));
+        }
+    }
+
+    @Test
+    void testTotalValueFallsBackWhenPriceNotRepresentable() {
+        GenericRepository<Asset> repository = new MapBasedGenericRepository<>();
+        Stock precise = new Stock("PREC", "Precise", "Tech", new BigDecimal("1.123456"));
+        repository.add(precise);
+        Portfolio portfolio = new Portfolio();
+        portfolio.addAsset(precise, 3);
+
+        PortfolioService service = new PortfolioService(repository);
+        assertEquals(new BigDecimal("3.370368"), service.calculateTotalValueFixedPoint(portfolio));
+    }
+
+    @Test
+    void testHighValueSymbolsFallBackWhenPriceNotRepresentable() {
+        List<Asset> assets = List.of(
+                new Stock("OVER", "Over", "Tech", new BigDecimal("10.000001")),
+                new Stock("UNDER", "Under", "Tech", new BigDecimal("9.999999")),
+                new Stock("EVEN", "Even", "Tech", new BigDecimal("10")));
+
+        assertEquals(List.of("OVER"),
+                new StreamAnalytics().getHighValueSymbolsFixedPoint(assets, 10 * FixedPoint.ONE));
+    }
+}
@@ -0,0 +1,133 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.HoldingsSnapshot;
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.domain.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldingsSnapshotTest {
+
+    @Test
+    void testMatchesHashMapUnderRandomTrades() {
+        Portfolio portfolio = new Portfolio();
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            // "Aa" and "BB" have the same hashCode, so the collision path is exercised too
+            String symbol = random.nextInt(10) == 0 ? (random.nextBoolean() ? "Aa" : "BB") : "S" + random.nextInt(2_000);
+            Stock stock = new Stock(symbol, symbol, "Tech", BigDecimal.ONE);
+            int held = expected.getOrDefault(symbol, 0);
+            if (held > 0 && random.nextBoolean()) {
+                int sold = 1 + random.nextInt(held);
+                portfolio.removeAsset(stock, sold);
+                if (held == sold) {
+                    expected.remove(symbol);
+                } else {
+                    expected.put(symbol, held - sold);
+                }
+            } else {
+                int bought = 1 + random.nextInt(100);
+                portfolio.addAsset(stock, bought);
+                expected.put(symbol, held + bought);
+            }
+        }
+
+        assertEquals(expected, portfolio.getHoldings());
+        assertEquals(expected.size(), portfolio.snapshot().size());
+    }
+
+    @Test
+    void testSnapshotIsImmutableAndVersioned() {
+        Portfolio portfolio = new Portfolio();
+        Stock apple = new Stock("AAPL", "Apple", "Tech", BigDecimal.ONE);
+        portfolio.addAsset(apple, 10);
+        HoldingsSnapshot before = portfolio.snapshot();
+
+        portfolio.addAsset(apple, 5);
+
+        assertEquals(10, before.quantity("AAPL"));
+        assertEquals(15, portfolio.snapshot().quantity("AAPL"));
+        assertEquals(before.version() + 1, portfolio.snapshot().version());
+        assertThrows(UnsupportedOperationException.class, () -> before.put("MSFT", 1));
+    }
+
+    @Test
+    void testRebalanceIsAllOrNothing() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.rebalance(Map.of("AAPL", 10, "MSFT", 5));
+        HoldingsSnapshot before = portfolio.snapshot();
+
+        assertThrows(IllegalStateException.class, () -> portfolio.rebalance(Map.of("AAPL", -3, "MSFT", -6)));
+
+        assertSame(before, portfolio.snapshot());
+        assertEquals(Map.of("AAPL", 10, "MSFT", 5), portfolio.getHoldings());
+    }
+
+    @Test
+    void testRebalanceThatEmptiesTheTrieThenAddsASymbol() {
+        // Either symbol may come first in the batch, so both directions are covered
+        Portfolio msft = new Portfolio();
+        msft.rebalance(Map.of("MSFT", 10));
+        msft.rebalance(Map.of("MSFT", -10, "AAPL", 5));
+        assertEquals(Map.of("AAPL", 5), msft.getHoldings());
+        assertEquals(1, msft.snapshot().size());
+
+        Portfolio aapl = new Portfolio();
+        aapl.rebalance(Map.of("AAPL", 10));
+        aapl.rebalance(Map.of("AAPL", -10, "MSFT", 5));
+        assertEquals(Map.of("MSFT", 5), aapl.getHoldings());
+        assertEquals(1, aapl.snapshot().size());
+    }
+
+    @Test
+    void testReadersNeverSeeHalfARebalance() throws Exception {
+        Portfolio portfolio = new Portfolio();
+        portfolio.rebalance(Map.of("A", 1_000, "B", 1_000));
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+
+        // Writers move shares between A and B, so A + B is always 2000 in a consistent state
+        for (int w = 0; w < 2; w++) {
+            int direction = w == 0 ? 1 : -1;
+            executor.submit(() -> {
+                while (running.get()) {
+                    try {
+                        portfolio.rebalance(Map.of("A", direction, "B", -direction));
+                    } catch (IllegalStateException e) {
+                        // One side ran out; keep going
+                    }
+                }
+            });
+        }
+        Future<?>[] readers = new Future<?>[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = executor.submit(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    HoldingsSnapshot snapshot = portfolio.snapshot();
+                    assertEquals(2_000, snapshot.quantity("A") + snapshot.quantity("B"));
+                }
+            });
+        }
+        try {
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
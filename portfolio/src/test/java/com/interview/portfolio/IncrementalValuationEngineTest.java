@@ -0,0 +1,129 @@
+package com.interview.portfolio;
+
+import com.interview.event.EventBus;
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.domain.PriceUpdatedEvent;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.GenericRepository;
+import com.interview.portfolio.repository.MapBasedGenericRepository;
+import com.interview.portfolio.service.IncrementalValuationEngine;
+import com.interview.portfolio.service.PortfolioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalValuationEngineTest {
+
+    private final Stock apple = new Stock("AAPL", "Apple Inc.", "Tech", new BigDecimal("150.00"));
+    private final Stock tesla = new Stock("TSLA", "Tesla Inc.", "Auto", new BigDecimal("200.00"));
+
+    private GenericRepository<Asset> repository;
+    private IncrementalValuationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MapBasedGenericRepository<>();
+        repository.add(apple);
+        repository.add(tesla);
+        engine = new IncrementalValuationEngine(repository);
+    }
+
+    @Test
+    void testTotalFollowsHoldingChanges() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.addAsset(apple, 10); // 1500 before tracking
+        engine.track(portfolio);
+
+        portfolio.addAsset(tesla, 5); // +1000
+        portfolio.removeAsset(apple, 4); // -600
+
+        assertEquals(0, new BigDecimal("1900").compareTo(engine.getTotalValue(portfolio)));
+        assertEquals(0, new PortfolioService(repository).calculateTotalValue(portfolio)
+                .compareTo(engine.getTotalValue(portfolio)));
+        assertTrue(engine.isConsistent(portfolio));
+    }
+
+    @Test
+    void testPriceUpdatesFromEventBus() {
+        Portfolio first = new Portfolio();
+        Portfolio second = new Portfolio();
+        engine.track(first);
+        engine.track(second);
+        first.addAsset(apple, 10);
+        second.addAsset(apple, 1);
+        second.addAsset(tesla, 1);
+
+        EventBus eventBus = new EventBus();
+        engine.subscribeTo(eventBus);
+        eventBus.dispatch(new PriceUpdatedEvent("AAPL", new BigDecimal("160.00")));
+
+        assertEquals(0, new BigDecimal("1600").compareTo(engine.getTotalValue(first)));
+        assertEquals(0, new BigDecimal("360").compareTo(engine.getTotalValue(second)));
+        assertTrue(engine.isConsistent(first));
+        assertTrue(engine.isConsistent(second));
+    }
+
+    @Test
+    void testConcurrentTradesAndPriceUpdatesStayConsistent() throws InterruptedException {
+        Portfolio portfolio = new Portfolio();
+        engine.track(portfolio);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    portfolio.addAsset(i % 2 == 0 ? apple : tesla, 1 + i % 3);
+                    if (thread == 0 && i % 10 == 0) {
+                        engine.onPriceUpdate("AAPL", BigDecimal.valueOf(100 + i % 50));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(engine.isConsistent(portfolio));
+    }
+
+    @Test
+    void testUnknownSymbolMarksPortfolioStaleInsteadOfFailingTheTrade() {
+        Portfolio portfolio = new Portfolio();
+        engine.track(portfolio);
+        Stock microsoft = new Stock("MSFT", "Microsoft", "Tech", new BigDecimal("100.00"));
+
+        // MSFT is not in the repository yet; the trade still goes through, AAPL included
+        portfolio.rebalance(Map.of("AAPL", 2, "MSFT", 3));
+        assertEquals(Map.of("AAPL", 2, "MSFT", 3), portfolio.getHoldings());
+        assertTrue(engine.isStale(portfolio));
+        assertThrows(IllegalStateException.class, () -> engine.getTotalValue(portfolio));
+
+        // Once MSFT can be priced, the next read recomputes and incremental updates resume
+        repository.add(microsoft);
+        assertEquals(0, new BigDecimal("600").compareTo(engine.getTotalValue(portfolio)));
+        assertFalse(engine.isStale(portfolio));
+        engine.onPriceUpdate("MSFT", new BigDecimal("110.00"));
+        portfolio.removeAsset(apple, 1);
+        assertEquals(0, new BigDecimal("480").compareTo(engine.getTotalValue(portfolio)));
+        assertTrue(engine.isConsistent(portfolio));
+    }
+
+    @Test
+    void testUntrackedPortfolioIsRejected() {
+        Portfolio portfolio = new Portfolio();
+        assertThrows(IllegalArgumentException.class, () -> engine.getTotalValue(portfolio));
+
+        engine.track(portfolio);
+        engine.untrack(portfolio);
+        portfolio.addAsset(apple, 1);
+        assertThrows(IllegalArgumentException.class, () -> engine.getTotalValue(portfolio));
+    }
+}
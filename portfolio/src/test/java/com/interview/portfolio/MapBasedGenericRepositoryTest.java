@@ -1,11 +1,13 @@
 package com.interview.portfolio;
 
+import com.interview.portfolio.repository.GenericRepository;
 import com.interview.portfolio.repository.MapBasedGenericRepository;
 import com.interview.portfolio.domain.Asset;
 import com.interview.portfolio.domain.Stock;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -54,6 +56,47 @@ class MapBasedGenericRepositoryTest {
         assertEquals(testString, registryList.get(0));
     }
 
+    @Test
+    void testSaveAll_MatchesIndividualSaves() {
+        MapBasedGenericRepository<Asset> repository = new MapBasedGenericRepository<>();
+        Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("100"));
+        Stock google = new Stock("GOOG", "Google", "Tech", new BigDecimal("200"));
+
+        repository.saveAll(Map.of("AAPL", apple, "GOOG", google));
+
+        assertEquals(Map.of("AAPL", apple), repository.findAllById(List.of("AAPL", "MSFT")));
+        assertEquals(2, repository.scan().count());
+        assertEquals(2, getRegistryList(repository, Stock.class).size());
+    }
+
+    @Test
+    void testMinimalImplementationGetsBulkDefaults() {
+        // Implements only the original three methods, like pre-existing implementations
+        Map<String, Asset> backing = new HashMap<>();
+        GenericRepository<Asset> minimal = new GenericRepository<>() {
+            @Override
+            public Optional<Asset> findById(String id) {
+                return Optional.ofNullable(backing.get(id));
+            }
+
+            @Override
+            public void save(String id, Asset entity) {
+                backing.put(id, entity);
+            }
+
+            @Override
+            public void add(Asset entity) {
+                save(entity.getSymbol(), entity);
+            }
+        };
+        Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("100"));
+
+        minimal.saveAll(Map.of("AAPL", apple));
+
+        assertEquals(Map.of("AAPL", apple), minimal.findAllById(List.of("AAPL", "MSFT")));
+        assertThrows(UnsupportedOperationException.class, minimal::scan);
+    }
+
     @SuppressWarnings("unchecked")
     private <T> List<T> getRegistryList(MapBasedGenericRepository<?> repository, Class<?> key) {
         try {
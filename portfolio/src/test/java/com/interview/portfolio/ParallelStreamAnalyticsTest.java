@@ -0,0 +1,112 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.service.ParallelStreamAnalytics;
+import com.interview.portfolio.service.StreamAnalytics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelStreamAnalyticsTest {
+
+    private final StreamAnalytics sequential = new StreamAnalytics();
+    // Threshold 1: every non-trivial input takes the parallel path
+    private final ParallelStreamAnalytics parallel = new ParallelStreamAnalytics(4, 1);
+
+    @AfterEach
+    void tearDown() {
+        parallel.close();
+    }
+
+    @Test
+    void testParallelResultsMatchSequential() {
+        List<Asset> assets = randomUniverse(50_000);
+
+        assertEquals(sequential.getHighValueSymbols(assets, new BigDecimal("2500")),
+                parallel.getHighValueSymbols(assets, new BigDecimal("2500")));
+        assertEquals(sequential.countStocksBySector(assets), parallel.countStocksBySector(assets));
+        // On equal prices either duplicate may win in parallel, so compare prices
+        Map<String, Asset> expectedSymbols = sequential.createSymbolMapHandlingDuplicates(assets);
+        Map<String, Asset> symbols = parallel.createSymbolMapHandlingDuplicates(assets);
+        assertEquals(expectedSymbols.keySet(), symbols.keySet());
+        expectedSymbols.forEach((symbol, asset) -> assertEquals(asset.getPrice(), symbols.get(symbol).getPrice()));
+        assertEquals(sequential.getAllDistinctSectors(List.of(assets, assets)),
+                parallel.getAllDistinctSectors(List.of(assets, assets)));
+
+        Map<String, List<Stock>> expectedGroups = sequential.groupStocksBySector(assets);
+        Map<String, List<Stock>> groups = parallel.groupStocksBySector(assets);
+        assertEquals(expectedGroups.keySet(), groups.keySet());
+        expectedGroups.forEach((sector, stocks) -> assertEquals(stocks.size(), groups.get(sector).size()));
+
+        Map<Boolean, List<Asset>> partition = parallel.partitionByValuation(assets);
+        assertEquals(sequential.partitionByValuation(assets), partition);
+
+        DoubleSummaryStatistics expected = sequential.getPriceStatistics(assets);
+        DoubleSummaryStatistics actual = parallel.getPriceStatistics(assets);
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getAverage(), actual.getAverage(), 1e-6);
+    }
+
+    @Test
+    void testSmallInputsStaySequential() {
+        try (ParallelStreamAnalytics analytics = new ParallelStreamAnalytics()) {
+            // Fails the test if the parallel path is taken
+            List<Asset> assets = new ArrayList<>(List.of(
+                    new Stock("AAPL", "Apple", "Tech", new BigDecimal("150")),
+                    new Stock("KO", "Coca Cola", "Consumer", new BigDecimal("60")))) {
+                @Override
+                public Stream<Asset> parallelStream() {
+                    throw new AssertionError("Small input took the parallel path");
+                }
+            };
+
+            assertEquals(Map.of("Tech", 1L, "Consumer", 1L), analytics.countStocksBySector(assets));
+            assertEquals(List.of("AAPL"), analytics.getHighValueSymbols(assets, new BigDecimal("100")));
+        }
+    }
+
+    @Test
+    void testResultMutabilityDoesNotDependOnInputSize() {
+        List<Asset> assets = randomUniverse(1_000);
+        BigDecimal threshold = new BigDecimal("2500");
+
+        try (ParallelStreamAnalytics analytics = new ParallelStreamAnalytics(4, 10_000)) {
+            List<String> small = analytics.getHighValueSymbols(assets, threshold);
+            List<String> large = parallel.getHighValueSymbols(assets, threshold);
+
+            assertEquals(small, large);
+            assertDoesNotThrow(() -> small.add("X"));
+            assertDoesNotThrow(() -> large.add("X"));
+        }
+    }
+
+    private List<Asset> randomUniverse(int size) {
+        String[] sectors = { "Tech", "Finance", "Consumer", "Utilities" };
+        Random random = new Random(11);
+        List<Asset> assets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(500_000), 2);
+            // Symbols repeat so the duplicate-merge path is exercised
+            String symbol = "S" + random.nextInt(size / 2);
+            if (i % 5 == 0) {
+                assets.add(new Bond(symbol, price, new BigDecimal("0.04")));
+            } else {
+                assets.add(new Stock(symbol, "Name", sectors[random.nextInt(sectors.length)], price));
+            }
+        }
+        return assets;
+    }
+}
@@ -10,7 +10,12 @@ import com.interview.portfolio.service.ReflectiveAssetInspector;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +49,37 @@ class PortfolioEnhancementTest {
         assertThrows(IllegalArgumentException.class, () -> inspector.validateAssetType(String.class));
     }
 
+    @Test
+    void testPermittedAssetTypesComeFromTheSealedHierarchy() {
+        assertEquals(Set.of(Stock.class, Bond.class), ReflectiveAssetInspector.permittedAssetTypes());
+
+        ReflectiveAssetInspector inspector = new ReflectiveAssetInspector();
+        // Subclasses of the non-sealed Stock are still valid, via the fallback check
+        assertDoesNotThrow(() -> inspector.validateAssetType(RestrictedStock.class));
+        assertThrows(IllegalArgumentException.class, () -> inspector.validateAssetType(Asset.class));
+        assertThrows(IllegalArgumentException.class, () -> inspector.validateAssetType(null));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> inspector.validateAssetType(String.class));
+        assertEquals("Class java.lang.String is not a valid Asset subclass", error.getMessage());
+    }
+
+    @Test
+    void testBulkAssetTypeClassification() {
+        ReflectiveAssetInspector inspector = new ReflectiveAssetInspector();
+        List<Class<?>> incoming = Arrays.asList(Stock.class, Stock.class, Bond.class, String.class, Stock.class,
+                RestrictedStock.class, Integer.class, String.class, null);
+
+        Map<Boolean, Set<Class<?>>> classified = inspector.classifyAssetTypes(incoming);
+
+        assertEquals(List.of(Stock.class, Bond.class, RestrictedStock.class), List.copyOf(classified.get(true)));
+        assertEquals(Arrays.asList(String.class, Integer.class, null), new ArrayList<>(classified.get(false)));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> inspector.validateAssetTypes(incoming));
+        assertEquals("Classes java.lang.String, java.lang.Integer, null are not valid Asset subclasses",
+                error.getMessage());
+        assertDoesNotThrow(() -> inspector.validateAssetTypes(List.of(Bond.class, Stock.class)));
+    }
+
     @Test
     void testAssetHierarchy() {
         Stock stock = new Stock("GOOGL", "Alphabet", "Tech", new BigDecimal("2000"));
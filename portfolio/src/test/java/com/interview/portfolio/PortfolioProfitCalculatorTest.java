@@ -1,11 +1,16 @@
 package com.interview.portfolio;
 
+import com.interview.portfolio.service.AssetTable;
 import com.interview.portfolio.service.PortfolioProfitCalculator;
 import com.interview.portfolio.domain.Asset;
 import com.interview.portfolio.domain.Stock;
 import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.RestrictedStock;
 import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 class PortfolioProfitCalculatorTest {
@@ -31,4 +36,60 @@ class PortfolioProfitCalculatorTest {
         assertEquals("Medium Risk", calculator.evaluateSectorRisk("Finance"));
         assertEquals("Unknown Risk", calculator.evaluateSectorRisk("BioTech"));
     }
+
+    @Test
+    void testBulkTaxMatchesPerAssetCalculation() {
+        List<Asset> assets = randomAssets(100_000);
+
+        long[] taxes = calculator.calculateEstimatedTaxUnits(assets);
+
+        long total = 0;
+        for (int i = 0; i < assets.size(); i++) {
+            assertEquals(calculator.calculateEstimatedTaxUnits(assets.get(i)), taxes[i], assets.get(i).getSymbol());
+            total += taxes[i];
+        }
+        assertEquals(total, calculator.calculateTotalEstimatedTaxUnits(AssetTable.of(assets)));
+    }
+
+    @Test
+    void testColumnarTaxRejectsMismatchedColumns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculateEstimatedTaxUnits(new long[2], new byte[] {AssetTable.TYPE_STOCK}));
+    }
+
+    @Test
+    void testColumnarTaxRejectsUnknownTypeCodes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculateEstimatedTaxUnits(new long[2], new byte[] {AssetTable.TYPE_STOCK, 42}));
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculateEstimatedTaxUnits(new long[1], new byte[] {-1}));
+    }
+
+    @Test
+    void testBulkSectorRiskMatchesSwitch() {
+        List<Asset> assets = randomAssets(10_000);
+
+        String[] risks = calculator.evaluateSectorRisks(AssetTable.of(assets));
+
+        for (int i = 0; i < assets.size(); i++) {
+            String expected = assets.get(i) instanceof Stock s ? calculator.evaluateSectorRisk(s.getSector()) : null;
+            assertEquals(expected, risks[i]);
+        }
+    }
+
+    private static List<Asset> randomAssets(int count) {
+        String[] sectors = {"Tech", "Crypto", "Consumer", "Utilities", "Finance", "BioTech"};
+        Random random = new Random(42);
+        List<Asset> assets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(100_000_000), 4);
+            String sector = sectors[random.nextInt(sectors.length)];
+            assets.add(switch (i % 3) {
+                case 0 -> new Stock("S" + i, "Stock " + i, sector, price);
+                case 1 -> new RestrictedStock("R" + i, "Restricted " + i, sector, price, 12);
+                default -> new Bond("B" + i, price, new BigDecimal("0.05"));
+            });
+        }
+        return assets;
+    }
 }
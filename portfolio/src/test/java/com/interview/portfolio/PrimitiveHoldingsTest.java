@@ -0,0 +1,75 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.domain.PrimitiveHoldings;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.domain.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveHoldingsTest {
+
+    private final SymbolTable symbols = new SymbolTable();
+
+    @Test
+    void testMatchesPortfolioHoldings() {
+        Portfolio portfolio = new Portfolio();
+        PrimitiveHoldings holdings = new PrimitiveHoldings();
+        for (int i = 0; i < 1_000; i++) {
+            Stock stock = new Stock("S" + i, "Name" + i, "Tech", BigDecimal.ONE);
+            portfolio.addAsset(stock, i + 1);
+            holdings.add(symbols.intern(stock.getSymbol()), i + 1);
+        }
+        Stock first = new Stock("S0", "Name0", "Tech", BigDecimal.ONE);
+        portfolio.removeAsset(first, 1);
+        holdings.remove(symbols.intern("S0"), 1);
+
+        assertEquals(portfolio.getHoldings(), holdings.toMap(symbols));
+        assertEquals(999, holdings.size());
+        assertEquals(0, holdings.get(symbols.intern("S0")));
+        assertEquals(1_000, holdings.get(symbols.intern("S999")));
+    }
+
+    @Test
+    void testRejectsOverselling() {
+        PrimitiveHoldings holdings = new PrimitiveHoldings();
+        int apple = symbols.intern("AAPL");
+        holdings.add(apple, 10);
+
+        assertThrows(IllegalStateException.class, () -> holdings.remove(apple, 11));
+        assertThrows(IllegalStateException.class, () -> holdings.remove(symbols.intern("MSFT"), 1));
+        assertThrows(IllegalArgumentException.class, () -> holdings.add(apple, 0));
+        assertThrows(ArithmeticException.class, () -> holdings.add(apple, Integer.MAX_VALUE));
+        assertEquals(10, holdings.get(apple));
+    }
+
+    @Test
+    void testConcurrentUpdatesAcrossResizes() throws InterruptedException {
+        PrimitiveHoldings holdings = new PrimitiveHoldings();
+        int threads = 8;
+        int positions = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < positions; i++) {
+                    holdings.add(symbols.intern("S" + i), 2);
+                    holdings.remove(symbols.intern("S" + i), 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(positions, holdings.size());
+        long[] total = new long[1];
+        holdings.forEach((symbolId, quantity) -> total[0] += quantity);
+        assertEquals((long) threads * positions, total[0]);
+        assertEquals(threads, holdings.get(symbols.intern("S4999")));
+    }
+}
@@ -0,0 +1,116 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.service.PricePredictor;
+import com.interview.portfolio.service.ResiliencePolicy;
+import com.interview.portfolio.service.ResilientPricePredictor;
+import com.interview.portfolio.service.SimulatedPricePredictor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientPricePredictorTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("100.00"));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testHedgingCutsTailLatency() throws Exception {
+        // Every other backend call takes 1s: each original call is slow, each hedge is normal
+        PricePredictor backend = new SimulatedPricePredictor(executor, 2, Duration.ofSeconds(1));
+
+        try (ResilientPricePredictor unhedged = new ResilientPricePredictor(
+                new SimulatedPricePredictor(executor, 2, Duration.ofSeconds(1)),
+                new ResiliencePolicy(Duration.ofSeconds(5), 64, false, Duration.ofMillis(250)), Asset::getPrice)) {
+            long start = System.nanoTime();
+            assertEquals(new BigDecimal("112.00"), unhedged.predict(apple, 12).get());
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 1_000);
+        }
+
+        try (ResilientPricePredictor hedged = new ResilientPricePredictor(backend,
+                new ResiliencePolicy(Duration.ofSeconds(5), 64, true, Duration.ofMillis(250)), Asset::getPrice)) {
+            for (int i = 0; i < 5; i++) {
+                long start = System.nanoTime();
+                assertEquals(new BigDecimal("112.00"), hedged.predict(apple, 12).get());
+                // ~250ms hedge delay + a 50-200ms normal call
+                assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 800);
+            }
+            assertEquals(5, hedged.stats().hedgesSent());
+            assertEquals(5, hedged.stats().hedgeWins());
+        }
+    }
+
+    @Test
+    void testTimeoutReturnsFallback() throws Exception {
+        PricePredictor hanging = (asset, months) -> new CompletableFuture<>();
+        try (ResilientPricePredictor predictor = new ResilientPricePredictor(hanging,
+                new ResiliencePolicy(Duration.ofMillis(100), 64, false, Duration.ofMillis(50)), Asset::getPrice)) {
+
+            assertEquals(new BigDecimal("100.00"), predictor.predict(apple, 12).get());
+            assertEquals(1, predictor.stats().timeouts());
+        }
+    }
+
+    @Test
+    void testBulkheadRejectsWhenSaturated() throws Exception {
+        PricePredictor hanging = (asset, months) -> new CompletableFuture<>();
+        try (ResilientPricePredictor predictor = new ResilientPricePredictor(hanging,
+                new ResiliencePolicy(Duration.ofSeconds(10), 2, false, Duration.ofMillis(50)), asset -> BigDecimal.ZERO)) {
+            CompletableFuture<BigDecimal> first = predictor.predict(apple, 12);
+            CompletableFuture<BigDecimal> second = predictor.predict(apple, 12);
+
+            CompletableFuture<BigDecimal> third = predictor.predict(apple, 12);
+
+            assertFalse(first.isDone());
+            assertFalse(second.isDone());
+            assertTrue(third.isDone());
+            assertEquals(BigDecimal.ZERO, third.get());
+            assertEquals(1, predictor.stats().bulkheadRejections());
+        }
+    }
+
+    @Test
+    void testFailureReturnsFallback() throws Exception {
+        PricePredictor failing = (asset, months) -> CompletableFuture.failedFuture(new IllegalStateException("down"));
+        try (ResilientPricePredictor predictor = new ResilientPricePredictor(failing, ResiliencePolicy.defaults(),
+                asset -> BigDecimal.ZERO)) {
+
+            assertEquals(BigDecimal.ZERO, predictor.predict(apple, 12).get());
+            assertEquals(1, predictor.stats().failures());
+        }
+    }
+
+    @Test
+    void testPredictAfterCloseFailsWithoutCallingBackend() {
+        AtomicInteger backendCalls = new AtomicInteger();
+        PricePredictor counting = (asset, months) -> {
+            backendCalls.incrementAndGet();
+            return CompletableFuture.completedFuture(asset.getPrice());
+        };
+        ResilientPricePredictor predictor = new ResilientPricePredictor(counting, ResiliencePolicy.defaults(),
+                Asset::getPrice);
+        predictor.close();
+
+        CompletableFuture<BigDecimal> result = predictor.predict(apple, 12);
+
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(0, backendCalls.get());
+        assertEquals(0, predictor.stats().calls());
+    }
+}
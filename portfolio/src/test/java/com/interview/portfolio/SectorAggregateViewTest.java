@@ -0,0 +1,161 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.AssetChangedEvent;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.FixedPoint;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.ConcurrentAssetRepository;
+import com.interview.portfolio.repository.MapBasedGenericRepository;
+import com.interview.portfolio.repository.ObservableAssetRepository;
+import com.interview.portfolio.service.SectorAggregateView;
+import com.interview.portfolio.service.SectorAggregateView.SectorAggregate;
+import com.interview.portfolio.service.StreamAnalytics;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectorAggregateViewTest {
+
+    private final StreamAnalytics analytics = new StreamAnalytics();
+
+    @Test
+    void testViewFollowsRepositoryWrites() {
+        ObservableAssetRepository repository = new ObservableAssetRepository(new MapBasedGenericRepository<>());
+        repository.add(new Stock("AAPL", "Apple", "Tech", new BigDecimal("150")));
+        SectorAggregateView view = SectorAggregateView.attach(repository);
+
+        repository.add(new Stock("GOOGL", "Google", "Tech", new BigDecimal("2800")));
+        repository.save("KO", new Stock("KO", "Coca Cola", "Consumer", new BigDecimal("60")));
+        repository.saveAll(Map.of("US10Y", new Bond("US10Y", new BigDecimal("100"), new BigDecimal("0.05"))));
+        // Price update, then a move to another sector
+        repository.add(new Stock("AAPL", "Apple", "Tech", new BigDecimal("170")));
+        repository.add(new Stock("GOOGL", "Google", "Consumer", new BigDecimal("2900")));
+
+        assertEquals(Map.of("Tech", 1L, "Consumer", 2L), view.countStocksBySector());
+        assertEquals(Map.of("Tech", Set.of("AAPL"), "Consumer", Set.of("KO", "GOOGL")), view.symbolsBySector());
+        SectorAggregate consumer = view.aggregates().get("Consumer");
+        assertEquals(0, new BigDecimal("2960").compareTo(consumer.sum()));
+        assertEquals(0, new BigDecimal("60").compareTo(consumer.min()));
+        assertEquals(0, new BigDecimal("2900").compareTo(consumer.max()));
+
+        List<Asset> assets = repository.scan().toList();
+        assertEquals(analytics.countStocksBySector(assets), view.countStocksBySector());
+        assertStatisticsEqual(analytics.getPriceStatistics(assets), view.getPriceStatistics());
+    }
+
+    @Test
+    void testConcurrentWritesMatchFullRebuild() throws InterruptedException {
+        ObservableAssetRepository repository = new ObservableAssetRepository(new ConcurrentAssetRepository<>());
+        SectorAggregateView view = SectorAggregateView.attach(repository);
+        String[] sectors = {"Tech", "Consumer", "Finance", "Utilities", "Energy"};
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 5_000; i++) {
+                    String symbol = "S" + random.nextInt(300);
+                    BigDecimal price = BigDecimal.valueOf(random.nextInt(1_000_000) + 1, 2);
+                    if (random.nextInt(10) == 0) {
+                        repository.save(symbol, new Bond(symbol, price, new BigDecimal("0.04")));
+                    } else {
+                        repository.add(new Stock(symbol, symbol, sectors[random.nextInt(sectors.length)], price));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        SectorAggregateView rebuilt = new SectorAggregateView();
+        rebuilt.rebuild(repository.scan());
+        assertEquals(rebuilt.aggregates(), view.aggregates());
+        assertEquals(rebuilt.symbolsBySector(), view.symbolsBySector());
+        assertStatisticsEqual(rebuilt.getPriceStatistics(), view.getPriceStatistics());
+        assertEquals(analytics.countStocksBySector(repository.scan().toList()), view.countStocksBySector());
+    }
+
+    @Test
+    void testNonFixedPointPriceIsRejectedBeforeAnyWrite() {
+        ObservableAssetRepository repository = new ObservableAssetRepository(new MapBasedGenericRepository<>());
+        repository.add(new Stock("AAPL", "Apple", "Tech", new BigDecimal("150")));
+        SectorAggregateView view = SectorAggregateView.attach(repository);
+        Stock tooPrecise = new Stock("AAPL", "Apple", "Tech", new BigDecimal("10.123456"));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.add(tooPrecise));
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(Map.of("AAPL", tooPrecise)));
+        // Even delivered directly, the event leaves the view as it was
+        assertThrows(IllegalArgumentException.class,
+                () -> view.onEvent(new AssetChangedEvent("AAPL", null, tooPrecise)));
+
+        assertEquals(0, new BigDecimal("150").compareTo(repository.findById("AAPL").orElseThrow().getPrice()));
+        assertEquals(Map.of("Tech", 1L), view.countStocksBySector());
+        assertFalse(view.isStale());
+    }
+
+    @Test
+    void testThrowingListenerDoesNotStopTheBatchOrCorruptTheView() {
+        ObservableAssetRepository repository = new ObservableAssetRepository(new MapBasedGenericRepository<>());
+        List<String> seen = new CopyOnWriteArrayList<>();
+        repository.addListener(event -> {
+            throw new IllegalStateException("listener failed on " + event.id());
+        });
+        repository.addListener(event -> seen.add(event.id()));
+        SectorAggregateView view = SectorAggregateView.attach(repository);
+
+        Map<String, Asset> batch = Map.of(
+                "AAPL", new Stock("AAPL", "Apple", "Tech", new BigDecimal("150")),
+                "KO", new Stock("KO", "Coca Cola", "Consumer", new BigDecimal("60")));
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> repository.saveAll(batch));
+
+        assertEquals(1, failure.getSuppressed().length);
+        assertEquals(Set.of("AAPL", "KO"), Set.copyOf(seen));
+        assertEquals(Map.of("Tech", 1L, "Consumer", 1L), view.countStocksBySector());
+    }
+
+    @Test
+    void testFailedEventMarksViewStaleAndItRebuilds() {
+        ObservableAssetRepository repository = new ObservableAssetRepository(new MapBasedGenericRepository<>());
+        repository.add(new Stock("AAPL", "Apple", "Tech", new BigDecimal("150")));
+        SectorAggregateView view = SectorAggregateView.attach(repository);
+
+        // Overflows the sector sum after the old AAPL price was already subtracted
+        Stock huge = new Stock("AAPL", "Apple", "Tech", FixedPoint.toBigDecimal(Long.MAX_VALUE));
+        repository.add(new Stock("MSFT", "Microsoft", "Tech", new BigDecimal("1")));
+        assertThrows(ArithmeticException.class, () -> view.onEvent(new AssetChangedEvent("AAPL", null, huge)));
+        assertTrue(view.isStale());
+
+        // The next read rebuilds from the repository, which still holds the old AAPL
+        assertEquals(Map.of("Tech", 2L), view.countStocksBySector());
+        assertFalse(view.isStale());
+        assertEquals(0, new BigDecimal("151").compareTo(view.aggregates().get("Tech").sum()));
+    }
+
+    @Test
+    void testEmptyView() {
+        SectorAggregateView view = new SectorAggregateView();
+
+        assertTrue(view.aggregates().isEmpty());
+        assertEquals(0, view.getPriceStatistics().getCount());
+    }
+
+    private static void assertStatisticsEqual(DoubleSummaryStatistics expected, DoubleSummaryStatistics actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getSum(), actual.getSum(), 1e-6);
+    }
+}
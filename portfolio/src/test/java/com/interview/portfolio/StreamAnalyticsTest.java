@@ -50,6 +50,47 @@ class StreamAnalyticsTest {
         assertEquals(1L, result.get("Consumer"));
     }
 
+    @Test
+    void testSectorIdGroupingMatchesGroupingBy() {
+        List<Asset> universe = new ArrayList<>(assets);
+        for (int i = 0; i < 1_000; i++) {
+            universe.add(new Stock("S" + i, "Stock " + i, "Sector-" + (i % 20), new BigDecimal(i + 1)));
+        }
+
+        assertEquals(analytics.groupStocksBySector(universe), analytics.groupStocksBySectorId(universe));
+        assertEquals(analytics.countStocksBySector(universe), analytics.countStocksBySectorId(universe));
+    }
+
+    @Test
+    void testStocksShareOneInternedSectorString() {
+        // Distinct String instances, as a parser would produce
+        Stock first = new Stock("A", "A Corp", new String("Utilities"), new BigDecimal("10"));
+        Stock second = new Stock("B", "B Corp", new String("Utilities"), new BigDecimal("20"));
+
+        // One canonical copy is retained instead of one per stock; each stock holds an id
+        assertSame(first.getSector(), second.getSector());
+        assertEquals(first.getSectorId(), second.getSectorId());
+        assertNotEquals(first.getSectorId(), apple.getSectorId());
+        assertEquals(new Stock("A", "A Corp", "Utilities", new BigDecimal("10")), first);
+    }
+
+    @Test
+    void testTopKAndTopNBySector() {
+        assertEquals(List.of(google, apple), analytics.getTopKByPrice(assets, 2));
+        assertEquals(assets.size(), analytics.getTopKByPrice(assets, 10).size());
+
+        Map<String, List<Stock>> topBySector = analytics.getTopNBySector(assets, 1);
+        assertEquals(Map.of("Tech", List.of(google), "Consumer", List.of(coke)), topBySector);
+    }
+
+    @Test
+    void testPriceQuantiles() {
+        double[] quantiles = analytics.getPriceQuantiles(assets, 0.0, 0.5, 1.0);
+
+        // Small inputs are kept exactly: min, median, max
+        assertArrayEquals(new double[] {60, 100, 2800}, quantiles);
+    }
+
     @Test
     void testPartitionByValuation() {
         // Threshold 1000.
@@ -0,0 +1,74 @@
+package com.interview.portfolio;
+
+import com.interview.portfolio.service.QuantileSketch;
+import com.interview.portfolio.service.TopK;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingSketchesTest {
+
+    @Test
+    void testParallelTopKMatchesFullSort() {
+        long[] values = new Random(7).longs(500_000, 0, 1_000_000_000L).toArray();
+
+        List<Long> top = LongStream.of(values).boxed().parallel()
+                .collect(TopK.collector(100, Comparator.naturalOrder()));
+
+        List<Long> expected = LongStream.of(values).boxed()
+                .sorted(Comparator.reverseOrder())
+                .limit(100)
+                .collect(Collectors.toList());
+        assertEquals(expected, top);
+    }
+
+    @Test
+    void testTopKRejectsNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(0, Comparator.naturalOrder()));
+    }
+
+    @Test
+    void testParallelQuantilesStayWithinRankError() {
+        int n = 1_000_000;
+        double[] values = new Random(11).doubles(n).map(v -> v * v * 10_000).toArray();
+
+        QuantileSketch sketch = Arrays.stream(values).boxed().parallel()
+                .collect(QuantileSketch.collector(Double::doubleValue));
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertEquals(n, sketch.count());
+        assertEquals(sorted[0], sketch.min());
+        assertEquals(sorted[n - 1], sketch.max());
+        for (double q : new double[] {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            double estimate = sketch.quantile(q);
+            // Rank of the estimate in the exact data, compared with the requested rank
+            int rank = Arrays.binarySearch(sorted, estimate);
+            assertTrue(rank >= 0, "Estimates are input values");
+            assertEquals(q, (double) rank / n, 0.03, "q = " + q);
+        }
+    }
+
+    @Test
+    void testSketchMemoryIsBounded() {
+        QuantileSketch small = new QuantileSketch();
+        IntStream.range(0, 1_000).forEach(small::add);
+        QuantileSketch large = new QuantileSketch();
+        IntStream.range(0, 2_000_000).forEach(large::add);
+
+        // Same accuracy in a few thousand retained values regardless of n
+        assertEquals(999_999.5, large.quantile(0.5), 2_000_000 * 0.03);
+        assertEquals(499.5, small.quantile(0.5), 1_000 * 0.03);
+        assertTrue(large.retained() <= 4 * QuantileSketch.DEFAULT_K, "retained = " + large.retained());
+        assertTrue(Double.isNaN(new QuantileSketch().quantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> large.quantile(1.5));
+    }
+}
@@ -0,0 +1,102 @@
+package com.interview.portfolio.proxy;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.GenericRepository;
+import com.interview.portfolio.repository.MapBasedGenericRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastLoggingHandlerTest {
+
+    private final Asset apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("150"));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordsLoggedCallsIntoHistograms() {
+        GenericRepository<Asset> realRepo = new MapBasedGenericRepository<>();
+        GenericRepository<Asset> proxyRepo = FastLoggingHandler.createProxy(realRepo, GenericRepository.class);
+
+        for (int i = 0; i < 1_000; i++) {
+            proxyRepo.add(apple);
+            assertTrue(proxyRepo.findById("AAPL").isPresent());
+        }
+
+        Map<String, LatencyHistogram> histograms = FastLoggingHandler.handlerOf(proxyRepo).histograms();
+        // Only add is @Logged; findById passes straight through
+        assertEquals(Map.of("add", histograms.get("add")), histograms);
+        assertEquals(1_000, histograms.get("add").count());
+        assertTrue(histograms.get("add").percentileNanos(99) >= histograms.get("add").percentileNanos(50));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTargetExceptionsPropagateUnwrapped() {
+        GenericRepository<Asset> proxyRepo = FastLoggingHandler.createProxy(new MapBasedGenericRepository<>(),
+                GenericRepository.class);
+
+        assertThrows(NullPointerException.class, () -> proxyRepo.add(null));
+        assertEquals(1, FastLoggingHandler.handlerOf(proxyRepo).histograms().get("add").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAsyncSinkPrintsOffTheCallingThread() {
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        try (AsyncLogSink sink = new AsyncLogSink(new PrintStream(outContent))) {
+            GenericRepository<Asset> proxyRepo = FastLoggingHandler.createProxy(new MapBasedGenericRepository<>(),
+                    GenericRepository.class, sink);
+
+            proxyRepo.add(apple);
+            proxyRepo.add(apple);
+            sink.flush();
+
+            String output = outContent.toString();
+            assertEquals(2, output.lines().filter(line -> line.startsWith("[PROXY] add | Time:")).count());
+            assertEquals(0, sink.droppedCount());
+        }
+    }
+
+    @Test
+    void testFlushWaitsForTheLineToBeWritten() {
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        // Slow writer: the event is taken off the ring well before its line is written
+        PrintStream slow = new PrintStream(outContent) {
+            @Override
+            public void println(String line) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                super.println(line);
+            }
+        };
+        try (AsyncLogSink sink = new AsyncLogSink(slow)) {
+            int id = sink.register("add");
+            assertTrue(sink.offer(id, 1_000));
+            sink.flush();
+
+            assertEquals(1, outContent.toString().lines().count());
+        }
+    }
+
+    @Test
+    void testHistogramBucketsStayWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1_000_000, histogram.count());
+        assertEquals(500_000.5, histogram.meanNanos(), 1e-6);
+        long p50 = histogram.percentileNanos(50);
+        long p99 = histogram.percentileNanos(99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125, "p50 = " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 * 1.125, "p99 = " + p99);
+    }
+}
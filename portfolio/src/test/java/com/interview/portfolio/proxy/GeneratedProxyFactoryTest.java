@@ -0,0 +1,126 @@
+package com.interview.portfolio.proxy;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.GenericRepository;
+import com.interview.portfolio.repository.MapBasedGenericRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedProxyFactoryTest {
+
+    private final Asset apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("150"));
+    private final Asset google = new Stock("GOOG", "Google", "Tech", new BigDecimal("2800"));
+
+    /**
+     * Every kind of slot and return type the generator has to get right.
+     */
+    public interface Calculator {
+        @Logged
+        long weighted(int count, long base, double factor, float bonus, boolean round);
+
+        double average(double[] values);
+
+        @Logged
+        void fail(String message);
+
+        default String describe(char unit, short scale, byte flags) {
+            return "default";
+        }
+    }
+
+    static class SimpleCalculator implements Calculator {
+        @Override
+        public long weighted(int count, long base, double factor, float bonus, boolean round) {
+            double value = count * base * factor + bonus;
+            return round ? Math.round(value) : (long) value;
+        }
+
+        @Override
+        public double average(double[] values) {
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            return sum / values.length;
+        }
+
+        @Override
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        @Override
+        public String describe(char unit, short scale, byte flags) {
+            return unit + ":" + scale + ":" + flags;
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBehavesLikeTheTargetAndTimesOnlyLoggedMethods() {
+        MethodTimings timings = new MethodTimings();
+        GenericRepository<Asset> realRepo = new MapBasedGenericRepository<>();
+        GenericRepository<Asset> proxyRepo = GeneratedProxyFactory.createProxy(realRepo, GenericRepository.class, timings);
+
+        for (int i = 0; i < 1_000; i++) {
+            proxyRepo.add(apple);
+            assertTrue(proxyRepo.findById("AAPL").isPresent());
+        }
+        proxyRepo.saveAll(Map.of("GOOG", google));
+
+        assertEquals(realRepo.scan().count(), proxyRepo.scan().count());
+        assertEquals(Map.of("AAPL", apple, "GOOG", google), proxyRepo.findAllById(List.of("AAPL", "GOOG")));
+        Map<String, LatencyHistogram> histograms = timings.histograms();
+        assertEquals(Map.of("add", histograms.get("add")), histograms);
+        assertEquals(1_000, histograms.get("add").count());
+    }
+
+    @Test
+    void testPassesPrimitivesArraysAndDefaultMethodsThrough() {
+        MethodTimings timings = new MethodTimings();
+        Calculator direct = new SimpleCalculator();
+        Calculator proxy = GeneratedProxyFactory.createProxy(direct, Calculator.class, timings);
+
+        assertEquals(direct.weighted(3, 1L << 40, 1.5, 0.5f, true), proxy.weighted(3, 1L << 40, 1.5, 0.5f, true));
+        assertEquals(direct.weighted(7, -11, 0.3, 2.25f, false), proxy.weighted(7, -11, 0.3, 2.25f, false));
+        assertEquals(2.5, proxy.average(new double[] {1, 2, 3, 4}));
+        // The target's override of a default method is the one called
+        assertEquals("k:-3:7", proxy.describe('k', (short) -3, (byte) 7));
+        assertEquals(Map.of("weighted", timings.histograms().get("weighted")), timings.histograms());
+        assertEquals(2, timings.histograms().get("weighted").count());
+    }
+
+    @Test
+    void testTargetExceptionsPropagateUnwrappedAndAreTimed() {
+        MethodTimings timings = new MethodTimings();
+        Calculator proxy = GeneratedProxyFactory.createProxy(new SimpleCalculator(), Calculator.class, timings);
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> proxy.fail("boom"));
+        assertEquals("boom", thrown.getMessage());
+        assertEquals(1, timings.histograms().get("fail").count());
+    }
+
+    @Test
+    void testOneGeneratedClassPerInterface() {
+        Calculator first = GeneratedProxyFactory.createProxy(new SimpleCalculator(), Calculator.class);
+        Calculator second = GeneratedProxyFactory.createProxy(new SimpleCalculator(), Calculator.class);
+
+        assertSame(first.getClass(), second.getClass());
+        assertTrue(first.getClass().isHidden());
+        assertFalse(java.lang.reflect.Proxy.isProxyClass(first.getClass()));
+    }
+
+    @Test
+    void testRejectsTargetsNotImplementingTheInterface() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GeneratedProxyFactory.createProxy("not a calculator", Calculator.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> GeneratedProxyFactory.createProxy(new SimpleCalculator(), SimpleCalculator.class));
+    }
+}
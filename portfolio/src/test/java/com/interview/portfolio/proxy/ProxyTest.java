@@ -9,11 +9,48 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class ProxyTest {
 
+    public interface PricingService {
+        @Logged(sampleRate = 0.0, slowThresholdMicros = 2_000, metric = "pricing.quote")
+        long quote(String symbol, long latencyMillis);
+
+        @Logged(sampleRate = 0.0, metric = "pricing.quote")
+        long quoteOrFail(String symbol);
+
+        @Logged(sampleRate = 1.5)
+        void misconfigured();
+    }
+
+    /**
+     * Takes no real time: each call advances a fake clock by its latency.
+     */
+    static class SlowPricingService implements PricingService {
+        final AtomicLong clock = new AtomicLong();
+
+        @Override
+        public long quote(String symbol, long latencyMillis) {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+            return symbol.length();
+        }
+
+        @Override
+        public long quoteOrFail(String symbol) {
+            throw new IllegalStateException("No quote for " + symbol);
+        }
+
+        @Override
+        public void misconfigured() {
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void testLoggingProxyInterception() {
@@ -45,4 +82,53 @@ class ProxyTest {
             System.setOut(System.out);
         }
     }
+
+    @Test
+    void testAggregatesMetricsAndPrintsOnlySlowCalls() {
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        SlowPricingService service = new SlowPricingService();
+        PricingService proxy = LoggingHandler.createProxy(service, PricingService.class, null,
+                new PrintStream(outContent), service.clock::get);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(4, proxy.quote("AAPL", 0));
+        }
+        proxy.quote("AAPL", 10);
+        assertThrows(IllegalStateException.class, () -> proxy.quoteOrFail("AAPL"));
+
+        // Unsampled calls print nothing; only the slow call is reported
+        String output = outContent.toString();
+        assertEquals(1, output.lines().count(), output);
+        assertTrue(output.startsWith("[PROXY] Slow call: quote | Time: 10000 micros"), output);
+
+        // Both methods aggregate under the shared metric name
+        Map<String, MethodStats> stats = LoggingHandler.handlerOf(proxy).stats();
+        MethodStats quote = stats.get("pricing.quote");
+        assertEquals(Map.of("pricing.quote", quote), stats);
+        assertEquals(1_002, quote.calls());
+        assertEquals(1, quote.errors());
+        assertEquals(1, quote.slowCalls());
+        assertTrue(quote.p99Nanos() >= quote.p50Nanos());
+    }
+
+    @Test
+    void testPrintsPeriodicSummaries() {
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        PricingService proxy = LoggingHandler.createProxy(new SlowPricingService(), PricingService.class,
+                Duration.ofNanos(1), new PrintStream(outContent));
+
+        proxy.quote("AAPL", 0);
+        proxy.quote("AAPL", 0);
+
+        String output = outContent.toString();
+        assertTrue(output.contains("[PROXY] Summary pricing.quote | calls: "), output);
+        assertFalse(output.contains("Entering method"), output);
+    }
+
+    @Test
+    void testRejectsInvalidSampleRate() {
+        PricingService proxy = LoggingHandler.createProxy(new SlowPricingService(), PricingService.class);
+
+        assertThrows(IllegalArgumentException.class, proxy::misconfigured);
+    }
 }
@@ -0,0 +1,138 @@
+package com.interview.portfolio.repository;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.RestrictedStock;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.service.ParallelStreamAnalytics;
+import com.interview.portfolio.service.StreamAnalytics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetFileReaderTest {
+
+    // 100 records per mapped region
+    private static final long SMALL_REGION = 100L * AssetFileWriter.RECORD_SIZE;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws Exception {
+        List<Asset> assets = List.of(
+                new Stock("AAPL", "Apple", "Tech", new BigDecimal("150.25")),
+                new RestrictedStock("META", "Meta", "Tech", new BigDecimal("300.00"), 12),
+                new Bond("US10Y", new BigDecimal("99.5"), new BigDecimal("0.035")));
+        Path file = write(assets);
+
+        try (AssetFileReader reader = new AssetFileReader(file)) {
+            assertEquals(3, reader.size());
+            assertEquals(assets, reader.asList());
+            assertEquals(assets, reader.stream().toList());
+            assertEquals(assets.get(1), reader.get(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.get(3));
+        }
+    }
+
+    @Test
+    void testAnalyticsOverFileMatchInMemory() throws Exception {
+        List<Asset> assets = randomAssets(20_000);
+        Path file = write(assets);
+        StreamAnalytics analytics = new StreamAnalytics();
+
+        try (AssetFileReader reader = new AssetFileReader(file, SMALL_REGION);
+             ParallelStreamAnalytics parallel = new ParallelStreamAnalytics(4, 1_000)) {
+            List<Asset> mapped = reader.asList();
+            BigDecimal threshold = new BigDecimal("500");
+
+            assertEquals(analytics.countStocksBySector(assets), analytics.countStocksBySector(mapped));
+            assertEquals(analytics.countStocksBySector(assets), parallel.countStocksBySector(mapped));
+            assertEquals(analytics.groupStocksBySector(assets), analytics.groupStocksBySector(mapped));
+            assertEquals(analytics.partitionByValuation(assets), parallel.partitionByValuation(mapped));
+            assertEquals(analytics.getHighValueSymbols(assets, threshold),
+                    parallel.getHighValueSymbols(mapped, threshold));
+            DoubleSummaryStatistics expected = analytics.getPriceStatistics(assets);
+            DoubleSummaryStatistics actual = parallel.getPriceStatistics(mapped);
+            assertEquals(expected.getCount(), actual.getCount());
+            assertEquals(expected.getMin(), actual.getMin());
+            assertEquals(expected.getMax(), actual.getMax());
+            assertEquals(expected.getSum(), actual.getSum(), 1e-6);
+
+            assertEquals(assets, reader.parallelStream().toList());
+        }
+    }
+
+    @Test
+    void testSplitsOnRegionBoundaries() throws Exception {
+        Path file = write(randomAssets(10_050));
+
+        try (AssetFileReader reader = new AssetFileReader(file, SMALL_REGION)) {
+            Spliterator<Asset> suffix = reader.asList().spliterator();
+            Spliterator<Asset> prefix = suffix.trySplit();
+
+            assertNotNull(prefix);
+            assertEquals(5_000, prefix.estimateSize());
+            assertEquals(5_050, suffix.estimateSize());
+            assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        }
+    }
+
+    @Test
+    void testRejectsForeignOrUnfinishedFiles() throws Exception {
+        Path garbage = tempDir.resolve("garbage.bin");
+        Files.write(garbage, new byte[64]);
+        assertThrows(IOException.class, () -> new AssetFileReader(garbage));
+
+        Path file = write(randomAssets(10));
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = tempDir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> new AssetFileReader(truncated));
+    }
+
+    @Test
+    void testRejectsOversizedAsset() throws Exception {
+        try (AssetFileWriter writer = new AssetFileWriter(tempDir.resolve("assets.bin"))) {
+            Stock huge = new Stock("BIG", "x".repeat(200), "Tech", BigDecimal.ONE);
+            assertThrows(IllegalArgumentException.class, () -> writer.append(huge));
+            assertEquals(0, writer.count());
+        }
+    }
+
+    private Path write(List<Asset> assets) throws IOException {
+        Path file = tempDir.resolve("assets-" + assets.size() + ".bin");
+        try (AssetFileWriter writer = new AssetFileWriter(file)) {
+            writer.appendAll(assets);
+        }
+        return file;
+    }
+
+    private static List<Asset> randomAssets(int n) {
+        String[] sectors = {"Tech", "Consumer", "Finance", "Utilities", "Energy"};
+        Random random = new Random(42);
+        List<Asset> assets = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String symbol = "S" + i;
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(100_000) + 1, 2);
+            switch (random.nextInt(10)) {
+                case 0 -> assets.add(new Bond(symbol, price, new BigDecimal("0.04")));
+                case 1 -> assets.add(new RestrictedStock(symbol, symbol, sectors[random.nextInt(5)], price, 6));
+                default -> assets.add(new Stock(symbol, symbol, sectors[random.nextInt(5)], price));
+            }
+        }
+        return assets;
+    }
+}
@@ -0,0 +1,155 @@
+package com.interview.portfolio.repository;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Bond;
+import com.interview.portfolio.domain.RestrictedStock;
+import com.interview.portfolio.domain.Stock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedAssetRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("100"));
+    private final RestrictedStock meta = new RestrictedStock("META", "Meta", "Tech", new BigDecimal("300.00"), 12);
+    private final Bond bond = new Bond("US10Y", new BigDecimal("100.00"), new BigDecimal("3.5"));
+
+    @Test
+    void testAddAndFindById() throws Exception {
+        try (MappedAssetRepository repository = new MappedAssetRepository(tempDir.resolve("assets.db"), 1024)) {
+            repository.add(apple);
+
+            Optional<Asset> retrieved = repository.findById("AAPL");
+            assertTrue(retrieved.isPresent());
+            assertEquals(apple, retrieved.get());
+            assertTrue(repository.findById("MSFT").isEmpty());
+        }
+    }
+
+    @Test
+    void testDataSurvivesReopen() throws Exception {
+        Path file = tempDir.resolve("assets.db");
+        try (MappedAssetRepository repository = new MappedAssetRepository(file, 1024)) {
+            repository.add(apple);
+            repository.add(meta);
+            repository.add(bond);
+            // Overwrite keeps a single entry
+            repository.save("AAPL", new Stock("AAPL", "Apple", "Tech", new BigDecimal("123.45")));
+        }
+
+        try (MappedAssetRepository reopened = new MappedAssetRepository(file, 1024)) {
+            assertEquals(3, reopened.size());
+            assertEquals(new BigDecimal("123.45"), reopened.findById("AAPL").get().getPrice());
+            assertEquals(meta, reopened.findById("META").get());
+            assertEquals(bond, reopened.findById("US10Y").get());
+        }
+    }
+
+    @Test
+    void testLoggedWriteIsReplayedAfterCrash() throws Exception {
+        Path file = tempDir.resolve("assets.db");
+        try (MappedAssetRepository repository = new MappedAssetRepository(file, 1024)) {
+            repository.add(apple);
+            repository.logWithoutApplying("US10Y", bond);
+            assertTrue(repository.findById("US10Y").isEmpty());
+        }
+        assertTrue(Files.size(tempDir.resolve("assets.db.wal")) > 0);
+
+        try (MappedAssetRepository recovered = new MappedAssetRepository(file, 1024)) {
+            assertEquals(bond, recovered.findById("US10Y").get());
+            assertEquals(2, recovered.size());
+        }
+        assertEquals(0, Files.size(tempDir.resolve("assets.db.wal")));
+    }
+
+    @Test
+    void testCollisionsAndCapacity() throws Exception {
+        try (MappedAssetRepository repository = new MappedAssetRepository(tempDir.resolve("assets.db"), 16)) {
+            // 12 entries = 75% load on 16 slots, so probing must resolve collisions
+            for (int i = 0; i < 12; i++) {
+                repository.add(new Stock("S" + i, "Name" + i, "Tech", BigDecimal.valueOf(i)));
+            }
+            for (int i = 0; i < 12; i++) {
+                assertEquals(BigDecimal.valueOf(i), repository.findById("S" + i).get().getPrice());
+            }
+            assertThrows(IllegalStateException.class,
+                    () -> repository.add(new Stock("S12", "Name", "Tech", BigDecimal.ONE)));
+        }
+    }
+
+    @Test
+    void testBulkLoadMatchesSingleSaves() throws Exception {
+        Map<String, Asset> universe = new LinkedHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            universe.put("S" + i, new Stock("S" + i, "Name" + i, "Sector" + (i % 7), BigDecimal.valueOf(i, 2)));
+        }
+        Path file = tempDir.resolve("assets.db");
+        try (MappedAssetRepository repository = new MappedAssetRepository(file, 16_384)) {
+            repository.saveAll(universe);
+            // Overwrites inside a batch must reuse the slot, not take a second one
+            repository.saveAll(Map.of("S1", apple, "AAPL", apple));
+            assertEquals(10_001, repository.size());
+        }
+
+        try (MappedAssetRepository reopened = new MappedAssetRepository(file, 16_384)) {
+            assertEquals(10_001, reopened.size());
+            Map<String, Asset> found = reopened.findAllById(List.of("S0", "S1", "MISSING", "S9999"));
+            assertEquals(List.of("S0", "S1", "S9999"), List.copyOf(found.keySet()));
+            assertEquals(apple, found.get("S1"));
+            assertEquals(universe.get("S9999"), found.get("S9999"));
+
+            // Parallel scan sees every record exactly once
+            assertEquals(10_001, reopened.scan().parallel().count());
+            assertEquals(universe.get("S42"), reopened.scan().parallel()
+                    .filter(asset -> asset.getPrice().equals(BigDecimal.valueOf(42, 2)))
+                    .findAny().orElseThrow());
+        }
+    }
+
+    @Test
+    void testBulkLoadChecksCapacityBeforeWriting() throws Exception {
+        Map<String, Asset> tooMany = new LinkedHashMap<>();
+        for (int i = 0; i < 13; i++) {
+            tooMany.put("S" + i, new Stock("S" + i, "Name" + i, "Tech", BigDecimal.valueOf(i)));
+        }
+        try (MappedAssetRepository repository = new MappedAssetRepository(tempDir.resolve("assets.db"), 16)) {
+            assertThrows(IllegalStateException.class, () -> repository.saveAll(tooMany));
+            assertEquals(0, repository.size());
+        }
+    }
+
+    @Test
+    void testZeroHeaderFromInterruptedCreateIsInitialized() throws Exception {
+        Path file = tempDir.resolve("assets.db");
+        // Crash after the file was extended but before the header reached disk
+        Files.write(file, new byte[4096]);
+
+        try (MappedAssetRepository repository = new MappedAssetRepository(file, 64)) {
+            repository.add(apple);
+        }
+        try (MappedAssetRepository reopened = new MappedAssetRepository(file, 64)) {
+            assertEquals(Optional.of(apple), reopened.findById("AAPL"));
+        }
+    }
+
+    @Test
+    void testForeignFileIsRejected() throws Exception {
+        Path file = tempDir.resolve("foreign.db");
+        Files.write(file, "not an asset repository".getBytes());
+
+        assertThrows(IOException.class, () -> new MappedAssetRepository(file, 64));
+    }
+}
@@ -0,0 +1,212 @@
+package com.interview.portfolio.repository.cache;
+
+import com.interview.portfolio.domain.Asset;
+import com.interview.portfolio.domain.Stock;
+import com.interview.portfolio.repository.GenericRepository;
+import com.interview.portfolio.repository.MapBasedGenericRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadThroughCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loaderCalls = new AtomicInteger();
+
+    private final CachePolicy policy = new CachePolicy(100, Duration.ofMinutes(5), Duration.ofMinutes(4),
+            Duration.ofSeconds(30));
+
+    private ReadThroughCache<String, String> cache(CachePolicy policy) {
+        return new ReadThroughCache<>(key -> {
+            loaderCalls.incrementAndGet();
+            return key.startsWith("missing") ? Optional.empty() : Optional.of(key + "@" + clock.get());
+        }, policy, Runnable::run, clock::get);
+    }
+
+    @Test
+    void shouldLoadOnceAndServeHits() {
+        ReadThroughCache<String, String> cache = cache(policy);
+
+        assertEquals(Optional.of("AAPL@0"), cache.get("AAPL"));
+        assertEquals(Optional.of("AAPL@0"), cache.get("AAPL"));
+
+        assertEquals(1, loaderCalls.get());
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void shouldCoalesceConcurrentLoadsOfTheSameKey() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReadThroughCache<String, String> cache = new ReadThroughCache<>(key -> {
+            loaderCalls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(key);
+        }, policy);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<String>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("HOT")));
+            // The load is in flight, so every later caller finds its future
+            started.await();
+            for (int i = 1; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("HOT")));
+            }
+            release.countDown();
+            for (Future<Optional<String>> result : results) {
+                assertEquals(Optional.of("HOT"), result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, loaderCalls.get());
+    }
+
+    @Test
+    void shouldCacheNotFoundForNegativeTtl() {
+        ReadThroughCache<String, String> cache = cache(policy);
+
+        assertTrue(cache.get("missing-1").isEmpty());
+        assertTrue(cache.get("missing-1").isEmpty());
+        assertEquals(1, loaderCalls.get());
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertTrue(cache.get("missing-1").isEmpty());
+        assertEquals(2, loaderCalls.get());
+    }
+
+    @Test
+    void shouldExpireAfterWrite() {
+        ReadThroughCache<String, String> cache = cache(new CachePolicy(100, Duration.ofMinutes(5),
+                Duration.ofMinutes(10), Duration.ofSeconds(30)));
+        cache.get("AAPL");
+
+        clock.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertEquals(Optional.of("AAPL@" + clock.get()), cache.get("AAPL"));
+        assertEquals(2, loaderCalls.get());
+    }
+
+    @Test
+    void shouldServeStaleValueWhileRefreshingAhead() {
+        ReadThroughCache<String, String> cache = cache(policy);
+        cache.get("AAPL");
+
+        clock.addAndGet(Duration.ofMinutes(4).toNanos());
+
+        // Old value served; the refresh (direct executor) replaced it in the background
+        assertEquals(Optional.of("AAPL@0"), cache.get("AAPL"));
+        assertEquals(Optional.of("AAPL@" + clock.get()), cache.get("AAPL"));
+        assertEquals(2, loaderCalls.get());
+    }
+
+    @Test
+    void shouldNotCacheLoaderFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        ReadThroughCache<String, String> cache = new ReadThroughCache<>(key -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("backend down");
+            }
+            return Optional.of(key);
+        }, policy);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("AAPL"));
+        assertEquals(Optional.of("AAPL"), cache.get("AAPL"));
+        assertEquals(1, cache.stats().loadFailureCount());
+    }
+
+    @Test
+    void shouldNotLeaveInFlightLoadBehindWhenLoaderThrowsError() {
+        AtomicInteger attempts = new AtomicInteger();
+        ReadThroughCache<String, String> cache = new ReadThroughCache<>(key -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new StackOverflowError("simulated");
+            }
+            return Optional.of(key);
+        }, policy);
+
+        assertThrows(StackOverflowError.class, () -> cache.get("AAPL"));
+        // Would block forever in join if the failed future were still cached
+        assertEquals(Optional.of("AAPL"), cache.get("AAPL"));
+        assertEquals(1, cache.stats().loadFailureCount());
+    }
+
+    @Test
+    void shouldKeepFrequentlyUsedKeysWhenScanned() {
+        ReadThroughCache<String, String> cache = cache(new CachePolicy(10, Duration.ofMinutes(5),
+                Duration.ofMinutes(4), Duration.ofSeconds(30)));
+        cache.get("HOT");
+        cache.get("HOT"); // second access promotes it to the protected segment
+
+        for (int i = 0; i < 100; i++) {
+            cache.get("SCAN-" + i);
+        }
+
+        assertEquals(10, cache.size());
+        int before = loaderCalls.get();
+        cache.get("HOT");
+        assertEquals(before, loaderCalls.get());
+        assertEquals(91, cache.stats().evictionCount());
+    }
+
+    @Test
+    void shouldWriteThroughAndReadOwnWrites() {
+        GenericRepository<Asset> delegate = new MapBasedGenericRepository<>();
+        CachingGenericRepository<Asset> repository = new CachingGenericRepository<>(delegate, policy);
+        Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("150.00"));
+
+        assertTrue(repository.findById("AAPL").isEmpty());
+        repository.add(apple);
+
+        assertSame(apple, repository.findById("AAPL").orElseThrow());
+        assertSame(apple, delegate.findById("AAPL").orElseThrow());
+
+        Stock updated = new Stock("AAPL", "Apple", "Tech", new BigDecimal("160.00"));
+        repository.save("AAPL", updated);
+        assertSame(updated, repository.findById("AAPL").orElseThrow());
+    }
+
+    @Test
+    void shouldNotServeCachedNotFoundOnceTheDelegateHasTheWrite() {
+        // Reads the key back right after the delegate write, before the cache is updated
+        List<Optional<Asset>> readsDuringWrite = new ArrayList<>();
+        List<CachingGenericRepository<Asset>> holder = new ArrayList<>();
+        GenericRepository<Asset> delegate = new MapBasedGenericRepository<>() {
+            @Override
+            public void add(Asset entity) {
+                super.add(entity);
+                readsDuringWrite.add(holder.get(0).findById(entity.getSymbol()));
+            }
+        };
+        CachingGenericRepository<Asset> repository = new CachingGenericRepository<>(delegate, policy);
+        holder.add(repository);
+        Stock apple = new Stock("AAPL", "Apple", "Tech", new BigDecimal("150.00"));
+
+        assertTrue(repository.findById("AAPL").isEmpty()); // cached as not found
+        repository.add(apple);
+
+        assertEquals(List.of(Optional.of(apple)), readsDuringWrite);
+        assertSame(apple, repository.findById("AAPL").orElseThrow());
+    }
+}
@@ -0,0 +1,178 @@
+package com.interview.regtech.provider;
+
+import com.interview.event.EventBus;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caching decorator around a (slow, remote) MarketProvider.
+ *
+ * All market state lives in one immutable Snapshot behind a volatile field.
+ * Readers do a single volatile read and a map lookup - no locks, no remote call.
+ * Writers (scheduled refresh, MarketStatusEvent) build a new Snapshot and
+ * publish it (Copy-On-Write), so readers never see a half-updated state.
+ *
+ * Upstream calls are made outside the monitor, so a slow upstream never
+ * blocks pushed events. Their results are merged in under it: a value pushed
+ * while the fetch was running is newer than the fetch and is kept.
+ */
+public class CachingMarketProvider implements MarketProvider, AutoCloseable {
+
+    private static final System.Logger LOG = System.getLogger(CachingMarketProvider.class.getName());
+
+    /**
+     * Immutable market state: the global flag plus per-symbol overrides.
+     */
+    record Snapshot(boolean globalOpen, Map<String, Boolean> symbolOpen) {
+        Snapshot {
+            symbolOpen = Map.copyOf(symbolOpen);
+        }
+
+        boolean isOpen(String symbol) {
+            Boolean open = symbolOpen.get(symbol);
+            return open != null ? open : globalOpen;
+        }
+    }
+
+    private final MarketProvider upstream;
+    private volatile Snapshot snapshot;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> refreshTask;
+    private boolean closed;
+
+    // Push bookkeeping, guarded by this: sequence number of the latest push,
+    // and of the latest push for the global flag and for each symbol
+    private long pushes;
+    private long globalPushedAt;
+    private final Map<String, Long> symbolPushedAt = new HashMap<>();
+
+    public CachingMarketProvider(MarketProvider upstream) {
+        this.upstream = upstream;
+        this.snapshot = new Snapshot(upstream.isMarketOpen(), Map.of());
+    }
+
+    @Override
+    public boolean isMarketOpen() {
+        return snapshot.globalOpen();
+    }
+
+    @Override
+    public boolean isMarketOpen(String symbol) {
+        return snapshot.isOpen(symbol);
+    }
+
+    /**
+     * Starts tracking a symbol individually. Its status is fetched once from the
+     * upstream provider now, and on every subsequent refresh.
+     */
+    public void track(String symbol) {
+        long since = pushSequence();
+        boolean open = upstream.isMarketOpen(symbol);
+        synchronized (this) {
+            if (symbolPushedAt.getOrDefault(symbol, 0L) <= since) {
+                Snapshot current = snapshot;
+                Map<String, Boolean> symbols = new HashMap<>(current.symbolOpen());
+                symbols.put(symbol, open);
+                snapshot = new Snapshot(current.globalOpen(), symbols);
+            }
+        }
+    }
+
+    /**
+     * Re-reads the global flag and every tracked symbol from the upstream
+     * provider and merges them into a new snapshot, except for values pushed
+     * while the upstream calls were running.
+     */
+    public void refresh() {
+        long since = pushSequence();
+        Set<String> tracked = snapshot.symbolOpen().keySet();
+        Map<String, Boolean> fetched = new HashMap<>();
+        for (String symbol : tracked) {
+            fetched.put(symbol, upstream.isMarketOpen(symbol));
+        }
+        boolean globalOpen = upstream.isMarketOpen();
+        synchronized (this) {
+            Snapshot current = snapshot;
+            Map<String, Boolean> symbols = new HashMap<>(current.symbolOpen());
+            fetched.forEach((symbol, open) -> {
+                if (symbolPushedAt.getOrDefault(symbol, 0L) <= since) {
+                    symbols.put(symbol, open);
+                }
+            });
+            snapshot = new Snapshot(globalPushedAt <= since ? globalOpen : current.globalOpen(), symbols);
+        }
+    }
+
+    /**
+     * Applies a pushed status change without calling the upstream provider.
+     */
+    public synchronized void onMarketStatus(MarketStatusEvent event) {
+        Snapshot current = snapshot;
+        pushes++;
+        if (event.isGlobal()) {
+            globalPushedAt = pushes;
+            snapshot = new Snapshot(event.open(), current.symbolOpen());
+        } else {
+            symbolPushedAt.put(event.symbol(), pushes);
+            Map<String, Boolean> symbols = new HashMap<>(current.symbolOpen());
+            symbols.put(event.symbol(), event.open());
+            snapshot = new Snapshot(current.globalOpen(), symbols);
+        }
+    }
+
+    /**
+     * Subscribes this provider to MarketStatusEvents on the given bus.
+     */
+    public void subscribeTo(EventBus eventBus) {
+        eventBus.register(MarketStatusEvent.class, this::onMarketStatus);
+    }
+
+    /**
+     * Refreshes from the upstream provider at a fixed rate on a single daemon
+     * thread. Calling it again replaces the previous schedule.
+     *
+     * @throws IllegalStateException if the provider is closed
+     */
+    public synchronized void scheduleRefresh(long period, TimeUnit unit) {
+        if (closed) {
+            throw new IllegalStateException("Provider is closed");
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "market-status-refresh");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+        }
+        refreshTask = scheduler.scheduleAtFixedRate(this::refreshQuietly, period, period, unit);
+    }
+
+    private synchronized long pushSequence() {
+        return pushes;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Keep serving the last known state; an exception would cancel the schedule
+            LOG.log(System.Logger.Level.WARNING, "Market status refresh failed", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
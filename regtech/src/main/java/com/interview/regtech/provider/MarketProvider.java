@@ -2,4 +2,12 @@ package com.interview.regtech.provider;
 
 public interface MarketProvider {
     boolean isMarketOpen();
+
+    /**
+     * Market status for the exchange a specific symbol trades on.
+     * Defaults to the global flag for providers that only know one calendar.
+     */
+    default boolean isMarketOpen(String symbol) {
+        return isMarketOpen();
+    }
 }
@@ -0,0 +1,18 @@
+package com.interview.regtech.provider;
+
+import com.interview.event.Event;
+
+/**
+ * Published on the EventBus when the market status changes.
+ * A null symbol means the global (default) market flag changed.
+ */
+public record MarketStatusEvent(String symbol, boolean open) implements Event {
+
+    public static MarketStatusEvent global(boolean open) {
+        return new MarketStatusEvent(null, open);
+    }
+
+    public boolean isGlobal() {
+        return symbol == null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.interview.regtech.repository;
+
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.repository.cache.CachePolicy;
+import com.interview.portfolio.repository.cache.CacheStats;
+import com.interview.portfolio.repository.cache.ReadThroughCache;
+import java.util.Optional;
+
+/**
+ * Decorator: caches portfolio lookups made by the rules (SenderHasBalanceRule,
+ * ReceiverExistsRule). Portfolio objects are mutable and thread-safe, so a
+ * cached instance still sees holding changes made through it; only which
+ * portfolio an id maps to is cached.
+ */
+public class CachingPortfolioRepository implements PortfolioRepository {
+
+    private final ReadThroughCache<String, Portfolio> cache;
+
+    public CachingPortfolioRepository(PortfolioRepository delegate, CachePolicy policy) {
+        this.cache = new ReadThroughCache<>(delegate::findById, policy);
+    }
+
+    @Override
+    public Optional<Portfolio> findById(String id) {
+        return cache.get(id);
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
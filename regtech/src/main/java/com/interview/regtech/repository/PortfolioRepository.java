@@ -1,6 +1,6 @@
 package com.interview.regtech.repository;
 
-import com.interview.portfolio.Portfolio;
+import com.interview.portfolio.domain.Portfolio;
 import java.util.Optional;
 
 public interface PortfolioRepository {
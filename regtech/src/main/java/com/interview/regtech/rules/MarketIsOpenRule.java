@@ -8,13 +8,22 @@ import com.interview.regtech.provider.MarketProvider;
 public class MarketIsOpenRule implements Rule<TransferContext> {
     private final MarketProvider marketProvider;
 
+    /**
+     * No-arg constructor required by ServiceLoader (SPI). Fails closed: with
+     * no provider wired in, the market is reported closed and every transfer
+     * is rejected. Wire a real provider through the other constructor.
+     */
+    public MarketIsOpenRule() {
+        this(() -> false);
+    }
+
     public MarketIsOpenRule(MarketProvider marketProvider) {
         this.marketProvider = marketProvider;
     }
 
     @Override
     public RuleResult validate(TransferContext context) {
-        if (marketProvider.isMarketOpen()) {
+        if (marketProvider.isMarketOpen(context.stockSymbol())) {
             return RuleResult.success();
         }
         return RuleResult.failure("Market is currently closed");
@@ -4,10 +4,19 @@ import com.interview.regtech.Rule;
 import com.interview.regtech.RuleResult;
 import com.interview.regtech.TransferContext;
 import com.interview.regtech.repository.PortfolioRepository;
+import java.util.Optional;
 
 public class ReceiverExistsRule implements Rule<TransferContext> {
     private final PortfolioRepository portfolioRepository;
 
+    /**
+     * No-arg constructor required by ServiceLoader (SPI). Uses an empty
+     * repository; wire a real one through the other constructor.
+     */
+    public ReceiverExistsRule() {
+        this(id -> Optional.empty());
+    }
+
     public ReceiverExistsRule(PortfolioRepository portfolioRepository) {
         this.portfolioRepository = portfolioRepository;
     }
@@ -1,6 +1,6 @@
 package com.interview.regtech.rules;
 
-import com.interview.portfolio.Portfolio;
+import com.interview.portfolio.domain.Portfolio;
 import com.interview.regtech.Rule;
 import com.interview.regtech.RuleResult;
 import com.interview.regtech.TransferContext;
@@ -0,0 +1,97 @@
+package com.interview.regtech.provider;
+
+import com.interview.event.EventBus;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingMarketProviderTest {
+
+    @Mock
+    private MarketProvider upstream;
+
+    @Test
+    void shouldServeReadsFromSnapshotWithoutCallingUpstream() {
+        when(upstream.isMarketOpen()).thenReturn(true);
+        CachingMarketProvider provider = new CachingMarketProvider(upstream);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(provider.isMarketOpen());
+            assertTrue(provider.isMarketOpen("AAPL"));
+        }
+
+        // Only the initial load hit the remote calendar
+        verify(upstream, times(1)).isMarketOpen();
+        verify(upstream, never()).isMarketOpen(anyString());
+    }
+
+    @Test
+    void shouldRefreshGlobalAndTrackedSymbols() {
+        when(upstream.isMarketOpen()).thenReturn(true, false);
+        when(upstream.isMarketOpen("7203.T")).thenReturn(false, true);
+        CachingMarketProvider provider = new CachingMarketProvider(upstream);
+        provider.track("7203.T");
+
+        assertTrue(provider.isMarketOpen("AAPL"));
+        assertFalse(provider.isMarketOpen("7203.T"));
+
+        provider.refresh();
+
+        assertFalse(provider.isMarketOpen("AAPL"));
+        assertTrue(provider.isMarketOpen("7203.T"));
+    }
+
+    @Test
+    void shouldApplyPushedMarketStatusEvents() {
+        when(upstream.isMarketOpen()).thenReturn(true);
+        CachingMarketProvider provider = new CachingMarketProvider(upstream);
+        EventBus eventBus = new EventBus();
+        provider.subscribeTo(eventBus);
+
+        eventBus.dispatch(new MarketStatusEvent("AAPL", false));
+        assertFalse(provider.isMarketOpen("AAPL"));
+        assertTrue(provider.isMarketOpen("MSFT"));
+
+        eventBus.dispatch(MarketStatusEvent.global(false));
+        assertFalse(provider.isMarketOpen());
+        assertFalse(provider.isMarketOpen("MSFT"));
+    }
+
+    @Test
+    void shouldNotBlockOrOverwritePushesDuringRefresh() {
+        CachingMarketProvider[] provider = new CachingMarketProvider[1];
+        when(upstream.isMarketOpen()).thenReturn(true).thenAnswer(invocation -> {
+            // A push arrives on another thread while the refresh waits on upstream
+            CompletableFuture.runAsync(() -> {
+                provider[0].onMarketStatus(MarketStatusEvent.global(false));
+                provider[0].onMarketStatus(new MarketStatusEvent("7203.T", false));
+            }).get(5, TimeUnit.SECONDS);
+            return true;
+        });
+        when(upstream.isMarketOpen("7203.T")).thenReturn(true);
+        provider[0] = new CachingMarketProvider(upstream);
+        provider[0].track("7203.T");
+
+        provider[0].refresh();
+
+        assertFalse(provider[0].isMarketOpen());
+        assertFalse(provider[0].isMarketOpen("7203.T"));
+    }
+
+    @Test
+    void shouldRejectScheduleAfterClose() {
+        when(upstream.isMarketOpen()).thenReturn(true);
+        CachingMarketProvider provider = new CachingMarketProvider(upstream);
+        provider.scheduleRefresh(1, TimeUnit.HOURS);
+        provider.close();
+
+        assertThrows(IllegalStateException.class, () -> provider.scheduleRefresh(1, TimeUnit.HOURS));
+    }
+}
@@ -0,0 +1,47 @@
+package com.interview.regtech.repository;
+
+import com.interview.portfolio.domain.Portfolio;
+import com.interview.portfolio.repository.cache.CachePolicy;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingPortfolioRepositoryTest {
+
+    @Mock
+    private PortfolioRepository delegate;
+
+    @Test
+    void shouldHitDelegateOncePerId() {
+        Portfolio portfolio = new Portfolio();
+        when(delegate.findById("P1")).thenReturn(Optional.of(portfolio));
+        when(delegate.findById("UNKNOWN")).thenReturn(Optional.empty());
+        CachingPortfolioRepository repository = new CachingPortfolioRepository(delegate, CachePolicy.defaults());
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(portfolio, repository.findById("P1").orElseThrow());
+            assertTrue(repository.findById("UNKNOWN").isEmpty());
+        }
+
+        verify(delegate, times(1)).findById("P1");
+        verify(delegate, times(1)).findById("UNKNOWN");
+        assertEquals(18, repository.stats().hitCount());
+    }
+
+    @Test
+    void shouldReloadAfterInvalidate() {
+        when(delegate.findById("P1")).thenReturn(Optional.empty()).thenReturn(Optional.of(new Portfolio()));
+        CachingPortfolioRepository repository = new CachingPortfolioRepository(delegate, CachePolicy.defaults());
+
+        assertTrue(repository.findById("P1").isEmpty());
+        repository.invalidate("P1");
+
+        assertTrue(repository.findById("P1").isPresent());
+    }
+}
@@ -22,7 +22,7 @@ class MarketIsOpenRuleTest {
         MarketIsOpenRule rule = new MarketIsOpenRule(marketProvider);
         TransferContext context = new TransferContext("s", "r", "A", 1);
 
-        when(marketProvider.isMarketOpen()).thenReturn(false);
+        when(marketProvider.isMarketOpen("A")).thenReturn(false);
 
         RuleResult result = rule.validate(context);
 
@@ -35,10 +35,19 @@ class MarketIsOpenRuleTest {
         MarketIsOpenRule rule = new MarketIsOpenRule(marketProvider);
         TransferContext context = new TransferContext("s", "r", "A", 1);
 
-        when(marketProvider.isMarketOpen()).thenReturn(true);
+        when(marketProvider.isMarketOpen("A")).thenReturn(true);
 
         RuleResult result = rule.validate(context);
 
         assertTrue(result.isValid());
     }
+
+    @Test
+    void shouldFailClosedWithoutProvider() {
+        MarketIsOpenRule rule = new MarketIsOpenRule();
+
+        RuleResult result = rule.validate(new TransferContext("s", "r", "A", 1));
+
+        assertFalse(result.isValid());
+    }
 }
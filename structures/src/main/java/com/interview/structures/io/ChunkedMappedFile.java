@@ -0,0 +1,175 @@
+package com.interview.structures.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Memory-mapped access to files of any length through a sliding window.
+ *
+ * A single MappedByteBuffer is capped at 2 GB (it is int-indexed). Here only
+ * one window of windowSize bytes is mapped at a time. Asking for a range
+ * outside it drops the window and maps a new one starting at that range
+ * (aligned down to a page), so a sequential scan slides through the file.
+ *
+ * - Zero copy: slice() returns a ByteBuffer view over the mapping, not a copy.
+ * - Prefetch: with Access.SEQUENTIAL each new window is load()ed up front,
+ * reading its pages into memory in one pass before the caller touches them.
+ * - Release: a replaced window is only dereferenced; GC unmaps it once no
+ * slice of it is reachable. Java 17 has no safe way to unmap eagerly (FFM
+ * Arena is still incubating), and unmapping under a live slice would crash
+ * the JVM. So the address space held is one window plus whatever slices the
+ * caller keeps, and a slice stays readable after the window moves.
+ *
+ * Not thread-safe.
+ */
+public class ChunkedMappedFile implements AutoCloseable {
+
+    public static final long DEFAULT_WINDOW_SIZE = 64L << 20;
+
+    // Window starts are aligned to this, so remaps fall on page boundaries
+    private static final long PAGE_SIZE = 4096;
+
+    /**
+     * Expected access pattern, used as a prefetch hint.
+     */
+    public enum Access {
+        /** Windows are consumed front to back: load each one eagerly. */
+        SEQUENTIAL,
+        /** Scattered reads: fault pages in on demand. */
+        RANDOM
+    }
+
+    private final FileChannel channel;
+    private final FileChannel.MapMode mode;
+    private final long size;
+    private final long windowSize;
+    private final Access access;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean closed;
+
+    private ChunkedMappedFile(FileChannel channel, FileChannel.MapMode mode, long size, long windowSize,
+                              Access access) {
+        this.channel = channel;
+        this.mode = mode;
+        this.size = size;
+        this.windowSize = windowSize;
+        this.access = access;
+    }
+
+    /**
+     * Opens an existing file read-only.
+     */
+    public static ChunkedMappedFile openForRead(Path path, long windowSize, Access access) throws IOException {
+        checkWindowSize(windowSize);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new ChunkedMappedFile(channel, FileChannel.MapMode.READ_ONLY, channel.size(), windowSize, access);
+    }
+
+    /**
+     * Opens (or creates) a file for reading and writing, growing it to size
+     * bytes if it is shorter. Growth leaves a sparse file where the file
+     * system supports it.
+     */
+    public static ChunkedMappedFile openForWrite(Path path, long size, long windowSize, Access access)
+            throws IOException {
+        checkWindowSize(windowSize);
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative: " + size);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        try {
+            if (channel.size() < size) {
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+            return new ChunkedMappedFile(channel, FileChannel.MapMode.READ_WRITE, channel.size(), windowSize,
+                    access);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Zero-copy view of [position, position + length), remapping the window if
+     * the range is not inside the current one. Read-only for files opened with
+     * openForRead. The view's position is 0 and its limit is length.
+     */
+    public ByteBuffer slice(long position, int length) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("File is closed");
+        }
+        Objects.checkFromIndexSize(position, length, size);
+        if (window == null || position < windowStart || position + length > windowStart + window.capacity()) {
+            remap(position, length);
+        }
+        return window.slice((int) (position - windowStart), length);
+    }
+
+    /**
+     * Hands the whole file to action, one window-sized slice at a time in file
+     * order. Each window is dropped when the next is mapped.
+     */
+    public void forEachWindow(Consumer<? super ByteBuffer> action) throws IOException {
+        for (long position = 0; position < size; position += windowSize) {
+            action.accept(slice(position, (int) Math.min(windowSize, size - position)));
+        }
+    }
+
+    /**
+     * Writes changes in the current window to the storage device.
+     */
+    public void force() {
+        if (window != null && mode == FileChannel.MapMode.READ_WRITE) {
+            window.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            force();
+            window = null;
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void remap(long position, int length) throws IOException {
+        long start = position - position % PAGE_SIZE;
+        long mapped = Math.min(Math.max(windowSize, position + length - start), size - start);
+        if (mapped > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Range does not fit in one mapping: " + length + " bytes");
+        }
+        force();
+        // Unreachable before mapping: if map() runs out of address space it runs GC and retries
+        window = null;
+        window = channel.map(mode, start, mapped);
+        windowStart = start;
+        if (access == Access.SEQUENTIAL) {
+            window.load();
+        }
+    }
+
+    private static void checkWindowSize(long windowSize) {
+        if (windowSize < PAGE_SIZE || windowSize > Integer.MAX_VALUE - PAGE_SIZE) {
+            throw new IllegalArgumentException("Window size must be between " + PAGE_SIZE + " and "
+                    + (Integer.MAX_VALUE - PAGE_SIZE) + " bytes: " + windowSize);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
 
 /**
  * Demonstrates Processing "Large" Files using Memory Mapped IO.
@@ -51,4 +52,18 @@ public class LargeFileProcessor {
             return new String(bytes, StandardCharsets.UTF_8);
         }
     }
+
+    /**
+     * CRC32 of a file of any size, read through a sliding window of
+     * windowSize bytes (see ChunkedMappedFile). Neither the file nor a
+     * window is ever copied into a byte[].
+     */
+    public long checksum(Path path, long windowSize) throws IOException {
+        CRC32 crc = new CRC32();
+        try (ChunkedMappedFile file = ChunkedMappedFile.openForRead(path, windowSize,
+                ChunkedMappedFile.Access.SEQUENTIAL)) {
+            file.forEachWindow(crc::update);
+        }
+        return crc.getValue();
+    }
 }
@@ -1,8 +1,14 @@
 package com.interview.structures.io;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.io.TempDir;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.CRC32;
 import static org.junit.jupiter.api.Assertions.*;
 
 class LargeFileProcessorTest {
@@ -22,4 +28,92 @@ class LargeFileProcessorTest {
 
         assertEquals(content, result);
     }
+
+    @Test
+    void testChunkedChecksumMatchesWholeFile() throws Exception {
+        byte[] data = new byte[1_000_003]; // not a multiple of the window
+        new Random(7).nextBytes(data);
+        Path file = tempDir.resolve("chunked.bin");
+        Files.write(file, data);
+
+        CRC32 expected = new CRC32();
+        expected.update(data);
+
+        assertEquals(expected.getValue(), new LargeFileProcessor().checksum(file, 64 * 1024));
+    }
+
+    @Test
+    void testSliceAcrossWindowBoundary() throws Exception {
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Path file = tempDir.resolve("slices.bin");
+        Files.write(file, data);
+
+        try (ChunkedMappedFile mapped = ChunkedMappedFile.openForRead(file, 8192, ChunkedMappedFile.Access.RANDOM)) {
+            ByteBuffer slice = mapped.slice(8000, 500); // straddles the first window
+            assertEquals(500, slice.remaining());
+            assertTrue(slice.isReadOnly());
+            for (int i = 0; i < 500; i++) {
+                assertEquals(data[8000 + i], slice.get(i));
+            }
+            assertEquals(data[99_999], mapped.slice(99_999, 1).get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> mapped.slice(99_999, 2));
+        }
+    }
+
+    /**
+     * Needs a file system with sparse files (3 GB apparent size, a few pages
+     * on disk), so it only runs with -DlargeFileTests=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "largeFileTests", matches = "true")
+    void testWriteBeyondTwoGigabytes() throws Exception {
+        Path file = tempDir.resolve("sparse.bin");
+        long offset = 3L << 30;
+        byte[] marker = "beyond 2 GB".getBytes(StandardCharsets.UTF_8);
+
+        try (ChunkedMappedFile mapped = ChunkedMappedFile.openForWrite(file, offset + 4096, 1 << 20,
+                ChunkedMappedFile.Access.RANDOM)) {
+            mapped.slice(offset, marker.length).put(marker);
+        }
+
+        try (ChunkedMappedFile mapped = ChunkedMappedFile.openForRead(file, 1 << 20, ChunkedMappedFile.Access.RANDOM)) {
+            assertEquals(offset + 4096, mapped.size());
+            byte[] read = new byte[marker.length];
+            mapped.slice(offset, marker.length).get(read);
+            assertArrayEquals(marker, read);
+            assertEquals(0, mapped.slice(0, 1).get(0));
+        }
+    }
+
+    @Test
+    void testSliceStaysReadableAfterWindowMoves() throws Exception {
+        byte[] data = new byte[64 * 1024];
+        new Random(11).nextBytes(data);
+        Path file = tempDir.resolve("moved.bin");
+        Files.write(file, data);
+
+        try (ChunkedMappedFile mapped = ChunkedMappedFile.openForRead(file, 8192, ChunkedMappedFile.Access.RANDOM)) {
+            ByteBuffer first = mapped.slice(0, 16);
+            mapped.slice(50_000, 16); // moves the window
+            for (int i = 0; i < 16; i++) {
+                assertEquals(data[i], first.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testClosedFileRejectsSlices() throws Exception {
+        Path file = tempDir.resolve("closed.bin");
+        Files.write(file, new byte[16]);
+
+        ChunkedMappedFile mapped = ChunkedMappedFile.openForRead(file, 4096, ChunkedMappedFile.Access.SEQUENTIAL);
+        mapped.close();
+
+        assertThrows(IllegalStateException.class, () -> mapped.slice(0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> ChunkedMappedFile.openForRead(file, 100, ChunkedMappedFile.Access.RANDOM));
+    }
 }